@@ -0,0 +1,139 @@
+package benchmark;
+
+import util.RandomArrayUtil;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * @className: BenchmarkData
+ * @description: 基准测试的数据生成
+ *
+ *              与各排序类中 sortingComparison() 的测试场景保持一致：
+ *                  random      正常随机数组
+ *                  duplicate   大量重复数组
+ *                  nearlySorted 基本有序数组（排好序后随机交换 1% 的元素，类似时间序列）
+ *
+ *              元素类型：
+ *                  Integer / Double / String
+ *
+ * @author: agent
+ * @date: 2026/10/17
+ */
+public final class BenchmarkData {
+
+    //正常随机数组的取值上限
+    private static final int RANDOM_CEIL = 10000000;
+
+    //大量重复数组的取值上限
+    private static final int DUPLICATE_CEIL = 100;
+
+    //随机字符串的长度
+    private static final int STRING_LENGTH = 10;
+
+    //基本有序数组中被交换的元素比例
+    private static final int NEARLY_SORTED_SWAP_DIVISOR = 100;
+
+    //固定种子，保证每次生成相同的扰动
+    private static final long NEARLY_SORTED_SEED = 42L;
+
+    private BenchmarkData() {}
+
+    /**
+     * 生成对象数组
+     * @param type 元素类型 Integer / Double / String
+     * @param distribution 数据分布 random / duplicate / nearlySorted
+     * @param size 数组长度
+     * @return 待排数组
+     */
+    @SuppressWarnings("rawtypes")
+    public static Comparable[] objectArray(String type, String distribution, int size) {
+        int ceil = ceil(distribution);
+        Comparable[] a;
+        switch (type) {
+            case "Integer":
+                a = RandomArrayUtil.getRandomBoxedIntArray(0, ceil, size);
+                break;
+            case "Double":
+                a = RandomArrayUtil.getRandomBoxedDoubleArray(0, ceil, size);
+                break;
+            case "String":
+                // 重复数组使用两位小写字母，最多 26*26 种取值
+                a = "duplicate".equals(distribution)
+                        ? RandomArrayUtil.getRandomLowerCaseStringArray(2, size)
+                        : RandomArrayUtil.getRandomStringArray(STRING_LENGTH, size);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown element type: " + type);
+        }
+        if (isNearlySorted(distribution)) {
+            Arrays.sort(a);
+            Random random = new Random(NEARLY_SORTED_SEED);
+            for (int k = size / NEARLY_SORTED_SWAP_DIVISOR; k > 0; k--) {
+                int i = random.nextInt(size), j = random.nextInt(size);
+                Comparable t = a[i];
+                a[i] = a[j];
+                a[j] = t;
+            }
+        }
+        return a;
+    }
+
+    /**
+     * 生成int数组
+     * @param distribution 数据分布 random / duplicate / nearlySorted
+     * @param size 数组长度
+     * @return 待排数组
+     */
+    public static int[] intArray(String distribution, int size) {
+        int[] a = RandomArrayUtil.getRandomIntArray(0, ceil(distribution), size);
+        if (isNearlySorted(distribution)) {
+            Arrays.sort(a);
+            Random random = new Random(NEARLY_SORTED_SEED);
+            for (int k = size / NEARLY_SORTED_SWAP_DIVISOR; k > 0; k--) {
+                int i = random.nextInt(size), j = random.nextInt(size);
+                int t = a[i];
+                a[i] = a[j];
+                a[j] = t;
+            }
+        }
+        return a;
+    }
+
+    /**
+     * 生成double数组
+     * @param distribution 数据分布 random / duplicate / nearlySorted
+     * @param size 数组长度
+     * @return 待排数组
+     */
+    public static double[] doubleArray(String distribution, int size) {
+        double[] a = RandomArrayUtil.getRandomDoubleArray(0, ceil(distribution), size);
+        if (isNearlySorted(distribution)) {
+            Arrays.sort(a);
+            Random random = new Random(NEARLY_SORTED_SEED);
+            for (int k = size / NEARLY_SORTED_SWAP_DIVISOR; k > 0; k--) {
+                int i = random.nextInt(size), j = random.nextInt(size);
+                double t = a[i];
+                a[i] = a[j];
+                a[j] = t;
+            }
+        }
+        return a;
+    }
+
+    private static boolean isNearlySorted(String distribution) {
+        return "nearlySorted".equals(distribution);
+    }
+
+    private static int ceil(String distribution) {
+        switch (distribution) {
+            case "random":
+            case "nearlySorted":
+                return RANDOM_CEIL;
+            case "duplicate":
+                return DUPLICATE_CEIL;
+            default:
+                throw new IllegalArgumentException("Unknown distribution: " + distribution);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sort.HeapSort;
+import sort.InPlaceMergeSort;
+import sort.MergeSort;
+import sort.MyTimSort;
+import sort.QuickSort;
+import sort.ShellSort;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * @className: ComparisonSortBenchmark
+ * @description: O(n*log(n)) 比较类排序的基准测试
+ *
+ *              覆盖 QuickSort / MergeSort / InPlaceMergeSort / HeapSort / ShellSort / MyTimSort 的公开入口，
+ *              代替 sortingComparison() 中单次计时、没有预热的测试方式。
+ *
+ *              每次调用前从 source 复制一份待排数组，排序的始终是同一份数据。
+ *
+ *              运行: java -jar target/benchmarks.jar ComparisonSortBenchmark -p size=100000
+ *
+ * @author: agent
+ * @date: 2026/10/17
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class ComparisonSortBenchmark {
+
+    private static final Map<String, Consumer<Comparable[]>> SORTERS = new HashMap<>();
+
+    //每个线程一个TimSort工作区, 在多次调用之间复用
+    private static final ThreadLocal<MyTimSort.Workspace> TIM_WORKSPACE = ThreadLocal.withInitial(MyTimSort.Workspace::new);
+
+    static {
+        SORTERS.put("quickSort1", QuickSort::quickSort1);
+        SORTERS.put("quickSort2", QuickSort::quickSort2);
+        SORTERS.put("advanceQuickSort1", QuickSort::advanceQuickSort1);
+        SORTERS.put("advanceQuickSort2", QuickSort::advanceQuickSort2);
+        SORTERS.put("threeWaySort", QuickSort::threeWaySort);
+        SORTERS.put("dualPivotSort", QuickSort::dualPivotSort);
+        SORTERS.put("introSort", QuickSort::introSort);
+        SORTERS.put("quickParallelSort", QuickSort::parallelSort);
+        SORTERS.put("mergeSortByRecursive", MergeSort::mergeSortByRecursive);
+        SORTERS.put("mergeSortByIterate", MergeSort::mergeSortByIterate);
+        SORTERS.put("mergeAdvancedSort", MergeSort::advancedSort);
+        SORTERS.put("mergeBottomUpSort", MergeSort::bottomUpSort);
+        SORTERS.put("inPlaceMergeSort", InPlaceMergeSort::sort);
+        SORTERS.put("mergeParallelSort", MergeSort::parallelSort);
+        SORTERS.put("heapSort", HeapSort::heapSort);
+        SORTERS.put("shellSort", ShellSort::sort);
+        SORTERS.put("shellSortWithPretreatment", a -> ShellSort.shellSortWithPretreatment(a, 3));
+        SORTERS.put("timSort", a -> MyTimSort.sort(a, 0, a.length, Comparator.naturalOrder()));
+        SORTERS.put("timSortWithWorkspace", a -> MyTimSort.sort(a, 0, a.length, Comparator.naturalOrder(), TIM_WORKSPACE.get()));
+        SORTERS.put("timParallelSort", a -> MyTimSort.parallelSort(a, 0, a.length, Comparator.naturalOrder()));
+    }
+
+    @Param({"quickSort1", "quickSort2", "advanceQuickSort1", "advanceQuickSort2", "threeWaySort", "dualPivotSort", "introSort", "quickParallelSort",
+            "mergeSortByRecursive", "mergeSortByIterate", "mergeAdvancedSort", "mergeBottomUpSort", "inPlaceMergeSort", "mergeParallelSort",
+            "heapSort", "shellSort", "shellSortWithPretreatment", "timSort", "timSortWithWorkspace", "timParallelSort"})
+    public String algorithm;
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"random", "duplicate"})
+    public String distribution;
+
+    @Param({"Integer", "Double", "String"})
+    public String type;
+
+    private Consumer<Comparable[]> sorter;
+
+    private Comparable[] source;
+
+    private Comparable[] a;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sorter = SORTERS.get(algorithm);
+        if (sorter == null) throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+        source = BenchmarkData.objectArray(type, distribution, size);
+        a = new Comparable[size];
+    }
+
+    @Setup(Level.Invocation)
+    public void copy() {
+        System.arraycopy(source, 0, a, 0, size);
+    }
+
+    @Benchmark
+    public Comparable[] sort() {
+        sorter.accept(a);
+        return a;
+    }
+}
@@ -0,0 +1,110 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import sort.BucketSort;
+import sort.CountSort;
+import sort.RadixSort;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @className: DistributionSortBenchmark
+ * @description: 非比较类排序的基准测试
+ *
+ *              int[]:    CountSort.countSort / CountSort.adaptiveCountSort / RadixSort.radixSort1 / RadixSort.radixSort2
+ *                        RadixSort.lsdRadixSort / RadixSort.parallelLsdRadixSort / RadixSort.msdRadixSort
+ *              double[]: BucketSort.sort / BucketSort.parallelSort
+ *
+ * @author: agent
+ * @date: 2026/10/17
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class DistributionSortBenchmark {
+
+    @Param({"countSort", "adaptiveCountSort", "radixSort1", "radixSort2", "lsdRadixSort", "parallelLsdRadixSort", "msdRadixSort", "bucketSort", "parallelBucketSort"})
+    public String algorithm;
+
+    @Param({"10000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"random", "duplicate"})
+    public String distribution;
+
+    private int[] intSource;
+    private int[] ints;
+
+    private double[] doubleSource;
+    private double[] doubles;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (algorithm.startsWith("bucketSort") || algorithm.equals("parallelBucketSort")) {
+            doubleSource = BenchmarkData.doubleArray(distribution, size);
+            doubles = new double[size];
+        } else {
+            intSource = BenchmarkData.intArray(distribution, size);
+            ints = new int[size];
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void copy() {
+        if (intSource != null) System.arraycopy(intSource, 0, ints, 0, size);
+        else System.arraycopy(doubleSource, 0, doubles, 0, size);
+    }
+
+    @Benchmark
+    public void sort(Blackhole bh) {
+        switch (algorithm) {
+            case "countSort":
+                CountSort.countSort(ints);
+                break;
+            case "adaptiveCountSort":
+                CountSort.adaptiveCountSort(ints);
+                break;
+            case "radixSort1":
+                RadixSort.radixSort1(ints);
+                break;
+            case "radixSort2":
+                RadixSort.radixSort2(ints);
+                break;
+            case "lsdRadixSort":
+                RadixSort.lsdRadixSort(ints);
+                break;
+            case "parallelLsdRadixSort":
+                RadixSort.parallelLsdRadixSort(ints);
+                break;
+            case "msdRadixSort":
+                RadixSort.msdRadixSort(ints);
+                break;
+            case "bucketSort":
+                BucketSort.sort(doubles);
+                bh.consume(doubles);
+                return;
+            case "parallelBucketSort":
+                BucketSort.parallelSort(doubles);
+                bh.consume(doubles);
+                return;
+            default:
+                throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+        }
+        bh.consume(ints);
+    }
+}
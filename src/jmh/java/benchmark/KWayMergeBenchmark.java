@@ -0,0 +1,92 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sort.KWayMerge;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @className: KWayMergeBenchmark
+ * @description: 多路归并的基准测试
+ *
+ *              把 size 个元素均分成 k 个有序的 int 数组:
+ *                  loserTree   KWayMerge.merge 一次合并k个数组
+ *                  pairwise    两两合并, 共 log(k) 趟
+ *
+ * @author: agent
+ * @date: 2026/10/17
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class KWayMergeBenchmark {
+
+    @Param({"loserTree", "pairwise"})
+    public String algorithm;
+
+    @Param({"1000000", "10000000"})
+    public int size;
+
+    @Param({"4", "64", "512"})
+    public int k;
+
+    @Param({"random", "duplicate"})
+    public String distribution;
+
+    private int[][] runs;
+
+    private int[] dst;
+
+    @Setup
+    public void setUp() {
+        int[] source = BenchmarkData.intArray(distribution, size);
+        runs = new int[k][];
+        for (int i = 0; i < k; i++) {
+            runs[i] = Arrays.copyOfRange(source, (int) ((long) i * size / k), (int) ((long) (i + 1) * size / k));
+            Arrays.sort(runs[i]);
+        }
+        dst = new int[size];
+    }
+
+    @Benchmark
+    public int[] merge() {
+        switch (algorithm) {
+            case "loserTree":
+                KWayMerge.merge(runs, dst);
+                return dst;
+            case "pairwise":
+                return pairwise(runs);
+            default:
+                throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+        }
+    }
+
+    /**
+     * 两两合并, 每一趟数组个数减半
+     */
+    private static int[] pairwise(int[][] runs) {
+        int[][] cur = runs;
+        while (cur.length > 1) {
+            int[][] next = new int[(cur.length + 1) >> 1][];
+            for (int i = 0; i < cur.length; i += 2) {
+                next[i >> 1] = i + 1 < cur.length ? KWayMerge.merge(cur[i], cur[i + 1]) : cur[i];
+            }
+            cur = next;
+        }
+        return cur[0];
+    }
+}
@@ -0,0 +1,159 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import sort.HeapSort;
+import sort.MergeSort;
+import sort.MyTimSort;
+import sort.QuickSort;
+import sort.ShellSort;
+import sort.Sorter;
+
+import java.lang.reflect.Array;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @className: PrimitiveSortBenchmark
+ * @description: 基本类型版本比较类排序的基准测试
+ *
+ *              与 ComparisonSortBenchmark 的 Integer / Double 结果对比，可以看出装箱的开销
+ *              distribution=nearlySorted 时可以看出 TimSort 的 run 检测的效果
+ *
+ * @author: agent
+ * @date: 2026/10/17
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PrimitiveSortBenchmark {
+
+    @Param({"advanceQuickSort1", "dualPivotSort", "introSort", "mergeAdvancedSort", "mergeBottomUpSort", "heapSort", "shellSort", "timSort", "sorter"})
+    public String algorithm;
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"random", "duplicate", "nearlySorted"})
+    public String distribution;
+
+    @Param({"int", "long", "float", "double"})
+    public String type;
+
+    private Object source;
+
+    private Object a;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int[] ints = BenchmarkData.intArray(distribution, size);
+        switch (type) {
+            case "int":
+                source = ints;
+                break;
+            case "long":
+                long[] longs = new long[size];
+                for (int i = 0; i < size; i++) longs[i] = ints[i];
+                source = longs;
+                break;
+            case "float":
+                float[] floats = new float[size];
+                for (int i = 0; i < size; i++) floats[i] = ints[i] / 100.0f;
+                source = floats;
+                break;
+            case "double":
+                source = BenchmarkData.doubleArray(distribution, size);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown element type: " + type);
+        }
+        a = Array.newInstance(source.getClass().getComponentType(), size);
+    }
+
+    @Setup(Level.Invocation)
+    public void copy() {
+        System.arraycopy(source, 0, a, 0, size);
+    }
+
+    @Benchmark
+    public void sort(Blackhole bh) {
+        if (a instanceof int[]) sort((int[]) a);
+        else if (a instanceof long[]) sort((long[]) a);
+        else if (a instanceof float[]) sort((float[]) a);
+        else sort((double[]) a);
+        bh.consume(a);
+    }
+
+    private void sort(int[] a) {
+        switch (algorithm) {
+            case "advanceQuickSort1": QuickSort.advanceQuickSort1(a); break;
+            case "dualPivotSort": QuickSort.dualPivotSort(a); break;
+            case "introSort": QuickSort.introSort(a); break;
+            case "mergeAdvancedSort": MergeSort.advancedSort(a); break;
+            case "mergeBottomUpSort": MergeSort.bottomUpSort(a); break;
+            case "heapSort": HeapSort.heapSort(a); break;
+            case "shellSort": ShellSort.sort(a); break;
+            case "timSort": MyTimSort.sort(a); break;
+            case "sorter": Sorter.sort(a); break;
+            default: throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+        }
+    }
+
+    private void sort(long[] a) {
+        switch (algorithm) {
+            case "advanceQuickSort1": QuickSort.advanceQuickSort1(a); break;
+            case "dualPivotSort": QuickSort.dualPivotSort(a); break;
+            case "introSort": QuickSort.introSort(a); break;
+            case "mergeAdvancedSort": MergeSort.advancedSort(a); break;
+            case "mergeBottomUpSort": MergeSort.bottomUpSort(a); break;
+            case "heapSort": HeapSort.heapSort(a); break;
+            case "shellSort": ShellSort.sort(a); break;
+            case "timSort": MyTimSort.sort(a); break;
+            case "sorter": Sorter.sort(a); break;
+            default: throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+        }
+    }
+
+    private void sort(float[] a) {
+        switch (algorithm) {
+            case "advanceQuickSort1": QuickSort.advanceQuickSort1(a); break;
+            case "dualPivotSort": QuickSort.dualPivotSort(a); break;
+            case "introSort": QuickSort.introSort(a); break;
+            case "mergeAdvancedSort": MergeSort.advancedSort(a); break;
+            case "mergeBottomUpSort": MergeSort.bottomUpSort(a); break;
+            case "heapSort": HeapSort.heapSort(a); break;
+            case "shellSort": ShellSort.sort(a); break;
+            case "timSort": MyTimSort.sort(a); break;
+            case "sorter": Sorter.sort(a); break;
+            default: throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+        }
+    }
+
+    private void sort(double[] a) {
+        switch (algorithm) {
+            case "advanceQuickSort1": QuickSort.advanceQuickSort1(a); break;
+            case "dualPivotSort": QuickSort.dualPivotSort(a); break;
+            case "introSort": QuickSort.introSort(a); break;
+            case "mergeAdvancedSort": MergeSort.advancedSort(a); break;
+            case "mergeBottomUpSort": MergeSort.bottomUpSort(a); break;
+            case "heapSort": HeapSort.heapSort(a); break;
+            case "shellSort": ShellSort.sort(a); break;
+            case "timSort": MyTimSort.sort(a); break;
+            case "sorter": Sorter.sort(a); break;
+            default: throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+        }
+    }
+}
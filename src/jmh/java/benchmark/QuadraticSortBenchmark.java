@@ -0,0 +1,97 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sort.BubbleSort;
+import sort.InsertionSort;
+import sort.SelectionSort;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * @className: QuadraticSortBenchmark
+ * @description: O(n^2) 排序的基准测试
+ *
+ *              覆盖 BubbleSort / SelectionSort / InsertionSort 的公开入口，
+ *              数据规模比 ComparisonSortBenchmark 小两个数量级。
+ *
+ * @author: agent
+ * @date: 2026/10/17
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class QuadraticSortBenchmark {
+
+    private static final Map<String, Consumer<Comparable[]>> SORTERS = new HashMap<>();
+
+    static {
+        SORTERS.put("bubbleSort", BubbleSort::sort);
+        SORTERS.put("bubbleSortWithFlag", BubbleSort::sortWithFlag);
+        SORTERS.put("bubbleSortWithCheckBound", BubbleSort::sortWithCheckBound);
+        SORTERS.put("bubbleSortBilaterally", BubbleSort::sortBilaterally);
+        SORTERS.put("selectionSort", SelectionSort::sort);
+        SORTERS.put("selectionSortWithBothEnds", SelectionSort::sortWithBothEnds);
+        SORTERS.put("insertionSort", InsertionSort::insertionSort);
+        SORTERS.put("insertionSortWithBinarySearch", InsertionSort::sortWithBinarySearch);
+        SORTERS.put("insertionSortWithBinarySearchAndPre", InsertionSort::sortWithBinarySearchAndPre);
+        SORTERS.put("twoPathInsertSort", InsertionSort::twoPathInsertSort);
+    }
+
+    @Param({"bubbleSort", "bubbleSortWithFlag", "bubbleSortWithCheckBound", "bubbleSortBilaterally",
+            "selectionSort", "selectionSortWithBothEnds",
+            "insertionSort", "insertionSortWithBinarySearch", "insertionSortWithBinarySearchAndPre",
+            "twoPathInsertSort"})
+    public String algorithm;
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    @Param({"random", "duplicate"})
+    public String distribution;
+
+    @Param({"Integer", "Double", "String"})
+    public String type;
+
+    private Consumer<Comparable[]> sorter;
+
+    private Comparable[] source;
+
+    private Comparable[] a;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sorter = SORTERS.get(algorithm);
+        if (sorter == null) throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+        source = BenchmarkData.objectArray(type, distribution, size);
+        a = new Comparable[size];
+    }
+
+    @Setup(Level.Invocation)
+    public void copy() {
+        System.arraycopy(source, 0, a, 0, size);
+    }
+
+    @Benchmark
+    public Comparable[] sort() {
+        sorter.accept(a);
+        return a;
+    }
+}
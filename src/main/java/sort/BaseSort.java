@@ -1,6 +1,11 @@
 package sort;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntConsumer;
 
 /**
  * @className: BaseSort
@@ -11,6 +16,9 @@ import java.util.Arrays;
  *      3. show()       输出
  *      4. isSorted()   是否已排序
  *      5. sort()       排序
+ *      6. moveNaNToEnd() / sortNegativeZero()  浮点数排序的预处理
+ *      7. countMoves() / countAllocation()     SortCounter的计数点
+ *      8. presort() / countRuns()              排序前的预扫描
  *
  * @author: ZSZ
  * @date: 2020/4/3 20:58
@@ -29,6 +37,7 @@ public abstract class  BaseSort {
      * @return v < w返回true, v >= w返回false
      */
     public static <K extends Comparable<K>> boolean less(K v,K w){
+        if(SortCounter.ENABLED) SortCounter.compare();
         return v.compareTo(w) < 0;
     }
 
@@ -39,11 +48,48 @@ public abstract class  BaseSort {
      * @param j 索引j
      */
     public static <K extends Comparable<K>> void swap(K[] array,int i,int j){
+        if(SortCounter.ENABLED) SortCounter.swap();
         K tmp = array[i];
         array[i] = array[j];
         array[j] = tmp;
     }
 
+    /**
+     * 在数组a中交换索引i, j对应元素
+     */
+    public static void swap(int[] array,int i,int j){
+        int tmp = array[i];
+        array[i] = array[j];
+        array[j] = tmp;
+    }
+
+    /**
+     * 在数组a中交换索引i, j对应元素
+     */
+    public static void swap(long[] array,int i,int j){
+        long tmp = array[i];
+        array[i] = array[j];
+        array[j] = tmp;
+    }
+
+    /**
+     * 在数组a中交换索引i, j对应元素
+     */
+    public static void swap(float[] array,int i,int j){
+        float tmp = array[i];
+        array[i] = array[j];
+        array[j] = tmp;
+    }
+
+    /**
+     * 在数组a中交换索引i, j对应元素
+     */
+    public static void swap(double[] array,int i,int j){
+        double tmp = array[i];
+        array[i] = array[j];
+        array[j] = tmp;
+    }
+
     public static <K extends Comparable<K>> void show(K[] array){
         Arrays.stream(array).forEach(x -> System.out.print(x + " "));
         System.out.println();
@@ -82,6 +128,36 @@ public abstract class  BaseSort {
         return true;
     }
 
+    /**
+     * 判断数组a[l...r]区间是否有序,
+     */
+    public static boolean isSorted(long[] a,int l, int r){
+        for(int i=l+1;i<=r;i++){
+            if(a[i]<a[i-1])return false;
+        }
+        return true;
+    }
+
+    /**
+     * 判断数组a[l...r]区间是否有序, 按照Double.compare的约定: -0.0 < 0.0, NaN最大
+     */
+    public static boolean isSorted(double[] a,int l, int r){
+        for(int i=l+1;i<=r;i++){
+            if(Double.compare(a[i],a[i-1]) < 0)return false;
+        }
+        return true;
+    }
+
+    /**
+     * 判断数组a[l...r]区间是否有序, 按照Float.compare的约定: -0.0f < 0.0f, NaN最大
+     */
+    public static boolean isSorted(float[] a,int l, int r){
+        for(int i=l+1;i<=r;i++){
+            if(Float.compare(a[i],a[i-1]) < 0)return false;
+        }
+        return true;
+    }
+
 
     /**
      * 判断数组是否增序
@@ -97,7 +173,329 @@ public abstract class  BaseSort {
         return isSorted(a,0,a.length-1);
     }
 
+    /**
+     * 判断数组是否增序
+     */
+    public static boolean isSorted(long[] a){
+        return isSorted(a,0,a.length-1);
+    }
+
+    /**
+     * 判断数组是否增序
+     */
+    public static boolean isSorted(double[] a){
+        return isSorted(a,0,a.length-1);
+    }
+
+    /**
+     * 判断数组是否增序
+     */
+    public static boolean isSorted(float[] a){
+        return isSorted(a,0,a.length-1);
+    }
+
+
+
+    /**
+     * 浮点数排序的预处理
+     *
+     * 浮点数直接使用 < 比较有两个问题:
+     *      1. NaN与任何数比较都为false, 会破坏排序;
+     *      2. -0.0 == 0.0, 无法区分两者的先后顺序。
+     * 按照Double.compare的约定(NaN最大, -0.0 < 0.0):
+     *      1. 排序前把NaN移到区间末尾, 只对剩下的元素排序;
+     *      2. 排序后调用 sortNegativeZero 把 -0.0 放到 0.0 前面。
+     * 这样排序过程中可以一直使用 < 比较, 不需要装箱, 也不需要每次调用Double.compare
+     *
+     * @return 非NaN元素的右边界
+     */
+    static int moveNaNToEnd(double[] a,int l,int r){
+        while(r>=l && Double.isNaN(a[r])) r--;
+        for(int k=r-1;k>=l;k--){
+            double ak = a[k];
+            if(ak != ak){       //ak为NaN
+                a[k] = a[r];
+                a[r--] = ak;
+            }
+        }
+        return r;
+    }
+
+    /**
+     * 已排序区间a[l...r]中的 -0.0 和 0.0 相邻, 统计 -0.0 的个数后重新填充
+     */
+    static void sortNegativeZero(double[] a,int l,int r){
+        //二分查找第一个 >= 0.0 的元素
+        int lo = l, hi = r+1;
+        while(lo<hi){
+            int m = (lo+hi)>>>1;
+            if(a[m] < 0.0) lo = m+1;
+            else hi = m;
+        }
+        int k = lo, negativeZeroCount = 0;
+        for(;k<=r && a[k]==0.0;k++){
+            if(Double.doubleToRawLongBits(a[k]) < 0) negativeZeroCount++;
+        }
+        for(int i=lo;i<k;i++) a[i] = i-lo < negativeZeroCount ? -0.0d : 0.0d;
+    }
+
+    /**
+     * float版本, 见 {@link #moveNaNToEnd(double[], int, int)}
+     */
+    static int moveNaNToEnd(float[] a,int l,int r){
+        while(r>=l && Float.isNaN(a[r])) r--;
+        for(int k=r-1;k>=l;k--){
+            float ak = a[k];
+            if(ak != ak){       //ak为NaN
+                a[k] = a[r];
+                a[r--] = ak;
+            }
+        }
+        return r;
+    }
+
+    /**
+     * float版本, 见 {@link #sortNegativeZero(double[], int, int)}
+     */
+    static void sortNegativeZero(float[] a,int l,int r){
+        int lo = l, hi = r+1;
+        while(lo<hi){
+            int m = (lo+hi)>>>1;
+            if(a[m] < 0.0f) lo = m+1;
+            else hi = m;
+        }
+        int k = lo, negativeZeroCount = 0;
+        for(;k<=r && a[k]==0.0f;k++){
+            if(Float.floatToRawIntBits(a[k]) < 0) negativeZeroCount++;
+        }
+        for(int i=lo;i<k;i++) a[i] = i-lo < negativeZeroCount ? -0.0f : 0.0f;
+    }
+
+
+//-------------------------------------预扫描----------------------------------------------
+
+    /*
+     * 排序前的预扫描, 不分配内存, 排序入口可以选择调用:
+     *      1. presort(): 已有序时直接返回, 严格递减时原地反转, 这两种情况都不需要再排序。
+     *         对随机数据通常在前几个元素就能判断不是这两种情况, 代价是O(1);
+     *      2. countRuns(): 统计升序run的个数(与MyTimSort中run的定义相同),
+     *         run的平均长度较长时说明数据基本有序, 适合TimSort(见Sorter)。
+     */
+
+    //presort()的返回值: 不是有序的, 需要排序
+    public static final int PRESORT_NONE = 0;
+
+    //presort()的返回值: 已有序
+    public static final int PRESORT_ASCENDING = 1;
+
+    //presort()的返回值: 严格递减, 已原地反转
+    public static final int PRESORT_REVERSED = 2;
+
+    /**
+     * 预扫描区间a[l...r]
+     * 严格递减(没有相等元素)时才反转, 所以不影响稳定性
+     * @param a 待排数组
+     * @param l 左边界
+     * @param r 右边界
+     * @return PRESORT_ASCENDING: 已有序; PRESORT_REVERSED: 严格递减, 已反转; PRESORT_NONE: 需要排序
+     */
+    public static <K extends Comparable<K>> int presort(K[] a,int l,int r){
+        if(r - l < 1) return PRESORT_ASCENDING;
+        int i = l+1;
+        if(less(a[i],a[l])){
+            while(++i <= r && less(a[i],a[i-1]));
+            if(i <= r) return PRESORT_NONE;
+            for(int lo=l,hi=r;lo<hi;lo++,hi--) swap(a,lo,hi);
+            return PRESORT_REVERSED;
+        }
+        while(++i <= r && !less(a[i],a[i-1]));
+        return i > r ? PRESORT_ASCENDING : PRESORT_NONE;
+    }
+
+    /**
+     * 使用比较器预扫描区间a[l...r], 见 {@link #presort(Comparable[], int, int)}
+     */
+    public static <T> int presort(T[] a,int l,int r,Comparator<? super T> c){
+        if(r - l < 1) return PRESORT_ASCENDING;
+        int i = l+1;
+        if(c.compare(a[i],a[l]) < 0){
+            while(++i <= r && c.compare(a[i],a[i-1]) < 0);
+            if(i <= r) return PRESORT_NONE;
+            for(int lo=l,hi=r;lo<hi;lo++,hi--){
+                T t = a[lo];
+                a[lo] = a[hi];
+                a[hi] = t;
+            }
+            return PRESORT_REVERSED;
+        }
+        while(++i <= r && c.compare(a[i],a[i-1]) >= 0);
+        return i > r ? PRESORT_ASCENDING : PRESORT_NONE;
+    }
+
+    /**
+     * 统计区间a[l...r]中升序run(a[k-1] <= a[k])的个数
+     * @param a 数组
+     * @param l 左边界
+     * @param r 右边界
+     * @param limit 个数超过limit时提前返回, 此时返回 limit+1
+     * @return run的个数
+     */
+    public static <K extends Comparable<K>> int countRuns(K[] a,int l,int r,int limit){
+        int runs = 1;
+        for(int i=l+1;i<=r;i++){
+            if(less(a[i],a[i-1]) && ++runs > limit) break;
+        }
+        return runs;
+    }
+
+    /**
+     * 使用比较器统计升序run的个数, 见 {@link #countRuns(Comparable[], int, int, int)}
+     */
+    public static <T> int countRuns(T[] a,int l,int r,int limit,Comparator<? super T> c){
+        int runs = 1;
+        for(int i=l+1;i<=r;i++){
+            if(c.compare(a[i],a[i-1]) < 0 && ++runs > limit) break;
+        }
+        return runs;
+    }
+
+    /**
+     * int版本, 见 {@link #presort(Comparable[], int, int)}
+     */
+    public static int presort(int[] a,int l,int r){
+        if(r - l < 1) return PRESORT_ASCENDING;
+        int i = l+1;
+        if(a[i] < a[l]){
+            while(++i <= r && a[i] < a[i-1]);
+            if(i <= r) return PRESORT_NONE;
+            for(int lo=l,hi=r;lo<hi;lo++,hi--) swap(a,lo,hi);
+            return PRESORT_REVERSED;
+        }
+        while(++i <= r && a[i] >= a[i-1]);
+        return i > r ? PRESORT_ASCENDING : PRESORT_NONE;
+    }
+
+    /**
+     * int版本, 见 {@link #countRuns(Comparable[], int, int, int)}
+     */
+    public static int countRuns(int[] a,int l,int r,int limit){
+        int runs = 1;
+        for(int i=l+1;i<=r;i++){
+            if(a[i] < a[i-1] && ++runs > limit) break;
+        }
+        return runs;
+    }
+
+    /**
+     * long版本, 见 {@link #presort(Comparable[], int, int)}
+     */
+    public static int presort(long[] a,int l,int r){
+        if(r - l < 1) return PRESORT_ASCENDING;
+        int i = l+1;
+        if(a[i] < a[l]){
+            while(++i <= r && a[i] < a[i-1]);
+            if(i <= r) return PRESORT_NONE;
+            for(int lo=l,hi=r;lo<hi;lo++,hi--) swap(a,lo,hi);
+            return PRESORT_REVERSED;
+        }
+        while(++i <= r && a[i] >= a[i-1]);
+        return i > r ? PRESORT_ASCENDING : PRESORT_NONE;
+    }
+
+    /**
+     * long版本, 见 {@link #countRuns(Comparable[], int, int, int)}
+     */
+    public static int countRuns(long[] a,int l,int r,int limit){
+        int runs = 1;
+        for(int i=l+1;i<=r;i++){
+            if(a[i] < a[i-1] && ++runs > limit) break;
+        }
+        return runs;
+    }
 
+    /**
+     * float版本, 见 {@link #presort(Comparable[], int, int)}
+     * 区间内不能有NaN
+     */
+    static int presort(float[] a,int l,int r){
+        if(r - l < 1) return PRESORT_ASCENDING;
+        int i = l+1;
+        if(a[i] < a[l]){
+            while(++i <= r && a[i] < a[i-1]);
+            if(i <= r) return PRESORT_NONE;
+            for(int lo=l,hi=r;lo<hi;lo++,hi--) swap(a,lo,hi);
+            return PRESORT_REVERSED;
+        }
+        while(++i <= r && a[i] >= a[i-1]);
+        return i > r ? PRESORT_ASCENDING : PRESORT_NONE;
+    }
+
+    /**
+     * float版本, 见 {@link #countRuns(Comparable[], int, int, int)}
+     * 区间内不能有NaN
+     */
+    static int countRuns(float[] a,int l,int r,int limit){
+        int runs = 1;
+        for(int i=l+1;i<=r;i++){
+            if(a[i] < a[i-1] && ++runs > limit) break;
+        }
+        return runs;
+    }
+
+    /**
+     * double版本, 见 {@link #presort(Comparable[], int, int)}
+     * 区间内不能有NaN
+     */
+    static int presort(double[] a,int l,int r){
+        if(r - l < 1) return PRESORT_ASCENDING;
+        int i = l+1;
+        if(a[i] < a[l]){
+            while(++i <= r && a[i] < a[i-1]);
+            if(i <= r) return PRESORT_NONE;
+            for(int lo=l,hi=r;lo<hi;lo++,hi--) swap(a,lo,hi);
+            return PRESORT_REVERSED;
+        }
+        while(++i <= r && a[i] >= a[i-1]);
+        return i > r ? PRESORT_ASCENDING : PRESORT_NONE;
+    }
+
+    /**
+     * double版本, 见 {@link #countRuns(Comparable[], int, int, int)}
+     * 区间内不能有NaN
+     */
+    static int countRuns(double[] a,int l,int r,int limit){
+        int runs = 1;
+        for(int i=l+1;i<=r;i++){
+            if(a[i] < a[i-1] && ++runs > limit) break;
+        }
+        return runs;
+    }
+
+    /**
+     * 记录n次元素复制, 没有开启SortCounter时没有开销
+     */
+    static void countMoves(int n){
+        if(SortCounter.ENABLED) SortCounter.move(n);
+    }
+
+    /**
+     * 记录一次辅助数组的分配, 没有开启SortCounter时没有开销
+     */
+    static void countAllocation(int elements){
+        if(SortCounter.ENABLED) SortCounter.allocate(elements);
+    }
+
+    /**
+     * 并行排序中为每一段创建一个任务, body的参数为段号
+     */
+    static List<ForkJoinTask<?>> chunkTasks(int chunks, IntConsumer body){
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(chunks);
+        for(int t=0;t<chunks;t++){
+            int chunk = t;
+            tasks.add(ForkJoinTask.adapt(() -> body.accept(chunk)));
+        }
+        return tasks;
+    }
 
     public static <K extends Comparable<K>> void pretreatment(K[] a){
         if(a==null)return ;
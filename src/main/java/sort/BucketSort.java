@@ -1,7 +1,9 @@
 package sort;
 
-import javax.swing.text.html.HTMLDocument;
-import java.util.*;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * @className: BucketSort
@@ -54,12 +56,33 @@ public class BucketSort extends BaseSort{
     /** * 设置桶的默认数量为5 */
     private static final int DEFAULT_BUCKET_SIZE = 5;
 
+    //桶内元素个数不超过该值时使用插入排序，否则使用内省排序
+    private static final int BUCKET_INSERTION_SORT_THRESHOLD = 32;
+
     /**
-     * 这里仅仅作为演示, 排序要求:
-     * 输入的桶大小bucketSize, 应当大于待排序浮点数的整数部分, 且浮点数均大于零才行!
-     * (因为在getBucketIndex方法中仅仅取了浮点数的整数部分作为桶的index)
+     * 桶排序 入口函数, 桶的个数等于数组长度, 均匀分布时每个桶平均只有一个元素
      * @param arr 待排序数组
-     * @param bucketSize 桶大小(在本例中为浮点数整数部分最大值+1)
+     */
+    public static void sort(double[] arr){
+        if(arr == null) return;
+        sort(arr, arr.length);
+    }
+
+    /**
+     * 桶排序
+     *
+     * 使用数组代替链表作为桶:
+     *      1. 找到最小值min和最大值max, 按 (data - min) / (max - min) 把 [min,max] 均分到各个桶,
+     *         适用于任意取值范围(包括负数);
+     *      2. 第一遍统计每个桶的元素个数, 前缀和得到每个桶在辅助数组中的区间;
+     *      3. 第二遍把元素分配到辅助数组对应的区间, 所有桶共用一个double数组, 不需要装箱;
+     *      4. 每个桶在自己的区间内排序: 元素少时使用插入排序, 否则使用内省排序。
+     *
+     * 按照Double.compare的约定排序: NaN排在最后, -0.0排在0.0之前。
+     * 包含无穷大时无法按范围均分, 直接使用内省排序。
+     *
+     * @param arr 待排序数组
+     * @param bucketSize 桶的个数, 不小于DEFAULT_BUCKET_SIZE
      */
      public static void sort(double[] arr, int bucketSize) {
 
@@ -67,64 +90,211 @@ public class BucketSort extends BaseSort{
          int length = arr.length;
          if(length<2) return;
 
-         List<LinkedList<Double>> buckets = new ArrayList<>();
-         bucketSize = Math.max(bucketSize,DEFAULT_BUCKET_SIZE);
+         int r = moveNaNToEnd(arr,0,length-1);
+         sort(arr,r,Math.max(bucketSize,DEFAULT_BUCKET_SIZE));
+         sortNegativeZero(arr,0,r);
+     }
 
-         //新建桶
-         for(int i=0;i<bucketSize;i++){
-             //选用链表作为桶的数据结构
-             buckets.add(new LinkedList<>());
-         }
+    /**
+     * 桶排序 排序区间[0,r], 区间内没有NaN
+     */
+     private static void sort(double[] arr, int r, int bucketSize){
+         if(r < 1) return;
 
-         //把数组元素放入桶中
-         for(int i=0;i<length;i++){
-             //选择桶
-             int index = getBucketIndex(arr[i]);
-             //往桶中插入元素
-             insertSort(buckets.get(index),arr[i]);
+         double min = arr[0], max = arr[0];
+         for(int i=1;i<=r;i++){
+             if(arr[i] > max) max = arr[i];
+             else if(arr[i] < min) min = arr[i];
+         }
+         //所有元素都相等
+         if(min == max) return;
+         //包含无穷大，无法按范围均分
+         if(Double.isInfinite(max - min)){
+             QuickSort.introSort(arr,0,r);
+             return;
          }
 
-         //遍历桶，把数据输出到原数组
-         int index = 0;
-         for(List<Double> bucket:buckets){
-             for (Double data:bucket) {
-                 arr[index++] = data;
-             }
+         int n = r + 1;
+         double scale = bucketSize / (max - min);
+
+         //第一遍：统计每个桶的元素个数, bucket[i] 变为第i个桶的起始位置, bucket[bucketSize] = n
+         int[] bucket = new int[bucketSize+1];
+         for(int i=0;i<n;i++) bucket[getBucketIndex(arr[i],min,scale,bucketSize)+1]++;
+         for(int i=0;i<bucketSize;i++) bucket[i+1] += bucket[i];
+
+         //第二遍：把元素分配到辅助数组中各个桶的区间
+         int[] next = Arrays.copyOf(bucket,bucketSize);
+         double[] aux = new double[n];
+         for(int i=0;i<n;i++){
+             double data = arr[i];
+             aux[next[getBucketIndex(data,min,scale,bucketSize)]++] = data;
          }
-     }
 
+         //桶内排序
+         for(int i=0;i<bucketSize;i++) sortBucket(aux,bucket[i],bucket[i+1]-1);
+
+         System.arraycopy(aux,0,arr,0,n);
+     }
 
     /**
-     * 计算应该在哪一个桶内
-     * @param data
-     * @return
+     * 桶内排序 排序区间[lo,hi]: 元素少时使用插入排序, 否则使用内省排序
      */
-     private static int getBucketIndex(double data){
-         // 这里例子写的比较简单，仅使用浮点数的整数部分作为其桶的索引值
-         // 实际开发中需要根据场景具体设计
-         return (int)data;
+     private static void sortBucket(double[] aux, int lo, int hi){
+         if(hi - lo < 1) return;
+         if(hi - lo < BUCKET_INSERTION_SORT_THRESHOLD) InsertionSort.insertionSort(aux,lo,hi);
+         else QuickSort.introSort(aux,lo,hi);
      }
 
+//-------------------------------------并行桶排序 Fork/Join----------------------------------------------
+
+    /*
+     * 桶之间互不相关, 分配完成后每个桶可以独立排序:
+     *      1. 分配: 按线程数把数组分段, 各线程统计本段每个桶的元素个数, 合并前缀和后各自把本段元素
+     *         分配到辅助数组, 写入位置互不重叠, 不需要加锁(与RadixSort.parallelLsdRadixSort相同);
+     *      2. 排序: 桶的区间递归二分为ForkJoin任务, 元素个数不超过PARALLEL_BUCKET_LENGTH时
+     *         串行排序这些桶并复制回原数组, 工作窃取平衡各线程的负载。
+     *
+     *      桶的个数: max(并行度 * 4, n / PARALLEL_BUCKET_LENGTH), 均匀分布时每个桶约能放入L2缓存。
+     */
+
+    //并行排序中每个桶的目标元素个数
+    private static final int PARALLEL_BUCKET_LENGTH = 1 << 14;
+
+    //每个线程最少分配的元素个数，元素太少时串行排序
+    private static final int MIN_PARALLEL_CHUNK = 1 << 16;
+
     /**
-     * 选用插入排序作为桶内元素排序方法
-     * @param bucket 桶
-     * @param data 待插入数据
+     * 并行桶排序 入口函数, 使用ForkJoinPool.commonPool()
+     * @param arr 待排序数组
      */
-     private static void insertSort(List<Double> bucket, double data){
-         boolean isInsert = false;
-         ListIterator iterator = bucket.listIterator();
-         while(iterator.hasNext()){
-             if(data <= (double)iterator.next()){
-                 //游标往前移，指向前一个元素
-                 iterator.previous();
-                 //插入数据
-                 iterator.add(data);
-                 isInsert = true;
-                 break;
-             }
-         }
-         //如果之前没有插入数据，表明该元素最大，直接插入末尾
-         if(!isInsert) bucket.add(data);
+    public static void parallelSort(double[] arr){
+        parallelSort(arr, ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    /**
+     * 并行桶排序
+     * 按照Double.compare的约定排序: NaN排在最后, -0.0排在0.0之前。
+     * @param arr 待排序数组
+     * @param parallelism 并行度, 决定分段数和桶的个数
+     */
+    public static void parallelSort(double[] arr, int parallelism){
+        if(arr == null) return;
+        if(parallelism < 1) throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+
+        int r = moveNaNToEnd(arr,0,arr.length-1);
+        int n = r + 1;
+        int chunks = Math.min(parallelism, n / MIN_PARALLEL_CHUNK);
+        if(chunks <= 1){
+            sort(arr,r,Math.max(n,DEFAULT_BUCKET_SIZE));
+        }else{
+            ForkJoinPool.commonPool().invoke(ForkJoinTask.adapt(() -> parallelSort(arr,n,parallelism,chunks)));
+        }
+        sortNegativeZero(arr,0,r);
+    }
+
+    /**
+     * 并行桶排序 排序区间[0,n), 区间内没有NaN
+     */
+    private static void parallelSort(double[] arr, int n, int parallelism, int chunks){
+        double min = arr[0], max = arr[0];
+        for(int i=1;i<n;i++){
+            if(arr[i] > max) max = arr[i];
+            else if(arr[i] < min) min = arr[i];
+        }
+        if(min == max) return;
+        if(Double.isInfinite(max - min)){
+            QuickSort.introSort(arr,0,n-1);
+            return;
+        }
+
+        int bucketSize = Math.max(parallelism * 4, n / PARALLEL_BUCKET_LENGTH);
+        double lo = min, scale = bucketSize / (max - min);
+
+        //第t段为 [bounds[t], bounds[t+1])
+        int[] bounds = new int[chunks+1];
+        for(int t=0;t<=chunks;t++) bounds[t] = (int)((long)n * t / chunks);
+
+        //1. 各线程统计本段每个桶的元素个数
+        int[][] count = new int[chunks][bucketSize];
+        ForkJoinTask.invokeAll(chunkTasks(chunks, t -> {
+            int[] c = count[t];
+            for(int i=bounds[t];i<bounds[t+1];i++) c[getBucketIndex(arr[i],lo,scale,bucketSize)]++;
+        }));
+
+        //合并: bucket[b]为第b个桶的起始位置, count[t][b]为第t段在第b个桶中的起始位置
+        int[] bucket = new int[bucketSize+1];
+        for(int b=0,sum=0;b<bucketSize;b++){
+            bucket[b] = sum;
+            for(int t=0;t<chunks;t++){
+                int c = count[t][b];
+                count[t][b] = sum;
+                sum += c;
+            }
+        }
+        bucket[bucketSize] = n;
+
+        //2. 各线程把本段元素分配到辅助数组
+        double[] aux = new double[n];
+        ForkJoinTask.invokeAll(chunkTasks(chunks, t -> {
+            int[] c = count[t];
+            for(int i=bounds[t];i<bounds[t+1];i++){
+                double data = arr[i];
+                aux[c[getBucketIndex(data,lo,scale,bucketSize)]++] = data;
+            }
+        }));
+
+        //3. 并行排序各个桶，并复制回原数组
+        new BucketTask(arr,aux,bucket,0,bucketSize).invoke();
+    }
+
+    /**
+     * 桶排序任务: 排序第[bLo,bHi)个桶, 并复制回原数组
+     */
+    private static final class BucketTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final double[] arr;
+        private final double[] aux;
+        private final int[] bucket;
+        private final int bLo;
+        private final int bHi;
+
+        BucketTask(double[] arr, double[] aux, int[] bucket, int bLo, int bHi){
+            this.arr = arr;
+            this.aux = aux;
+            this.bucket = bucket;
+            this.bLo = bLo;
+            this.bHi = bHi;
+        }
+
+        @Override
+        protected void compute() {
+            int lo = bucket[bLo], hi = bucket[bHi];
+            if(bHi - bLo == 1 || hi - lo <= PARALLEL_BUCKET_LENGTH){
+                for(int b=bLo;b<bHi;b++) sortBucket(aux,bucket[b],bucket[b+1]-1);
+                System.arraycopy(aux,lo,arr,lo,hi-lo);
+                return;
+            }
+            int mid = (bLo + bHi) >>> 1;
+            invokeAll(new BucketTask(arr,aux,bucket,bLo,mid),
+                      new BucketTask(arr,aux,bucket,mid,bHi));
+        }
+    }
+
+
+    /**
+     * 计算应该在哪一个桶内
+     * 按 (data - min) * scale 映射, 映射是单调的, 前面的桶中的元素都不大于后面的桶
+     * @param data
+     * @param min 最小值
+     * @param scale bucketSize / (max - min)
+     * @param bucketSize 桶的个数
+     * @return
+     */
+     private static int getBucketIndex(double data, double min, double scale, int bucketSize){
+         int index = (int)((data - min) * scale);
+         //最大值映射到 bucketSize, 放入最后一个桶
+         return index < bucketSize ? index : bucketSize - 1;
      }
 
 }
@@ -3,6 +3,9 @@ package sort;
 import util.RandomArrayUtil;
 import util.StopWatch;
 
+import java.util.Comparator;
+import java.util.function.ToIntFunction;
+
 /**
  * @className: CountSort
  * @description: 计数排序 非比较类排序
@@ -44,13 +47,21 @@ public class CountSort extends BaseSort implements SortedCompared{
         countSort(a,0,length-1);
     }
 
+    /**
+     * 计数排序 排序区间[l,r]
+     *
+     * 计数数组的长度为 max - min + 1, 取值范围很大时会分配巨大的数组, 这种情况使用 adaptiveCountSort
+     * @param a 待排数组
+     * @param l 左边界
+     * @param r 右边界
+     */
     public static void countSort(int[] a,int l,int r){
         if(l >= r)return;
 
         //第一遍：
         //找到最大最小值，确定范围
-        int min_value=a[0], max_value=a[0];
-        for(int i=1;i<a.length;i++){
+        int min_value=a[l], max_value=a[l];
+        for(int i=l+1;i<=r;i++){
             if(a[i] > max_value) max_value = a[i];
             else if(a[i] < min_value) min_value = a[i];
         }
@@ -59,15 +70,19 @@ public class CountSort extends BaseSort implements SortedCompared{
         int[] aux = new int[max_value - min_value + 1];
 
         //第二次遍历：
-//        for(int i=0;i<a.length;i++){
-//            aux[a[i]-min_value] += 1;
-//        }
-        for (int i:a) {
-            aux[i-min_value] += 1;
+        for(int i=l;i<=r;i++){
+            aux[a[i]-min_value] += 1;
         }
 
         //将计数结果输入到原数组
-        int index=0;
+        fill(a,l,aux,min_value);
+    }
+
+    /**
+     * 按计数结果依次写入 a[l...], 第i个计数对应的值为 i+min_value
+     */
+    private static void fill(int[] a,int l,int[] aux,int min_value){
+        int index=l;
         for(int i=0;i<aux.length;i++){
             for(int j=0;j<aux[i];j++){
                 a[index++] = i+min_value;
@@ -75,6 +90,176 @@ public class CountSort extends BaseSort implements SortedCompared{
         }
     }
 
+//-------------------------------------范围自适应的计数排序----------------------------------------------
+
+    /*
+     * 计数排序的计数数组长度为 max - min + 1, 数据中出现个别离群值时, 计数数组会非常大(甚至超过int范围)。
+     * 自适应计数排序先检查取值范围:
+     *      1. 范围 <= max(n, MIN_COUNT_RANGE): 直接使用计数数组, 计数数组不超过原数组的长度;
+     *      2. 范围太大, 但不同值的个数很少(例如大部分数据集中, 只有少量离群值):
+     *         使用开放寻址的哈希表计数, 只对不同的值排序, 再按计数写回;
+     *      3. 不同值的个数也很多: 计数排序没有优势, 使用二进制位LSD基数排序 RadixSort.lsdRadixSort。
+     *
+     *      额外空间始终为 O(n)。
+     */
+
+    //取值范围不超过 max(n, 该值) 时直接使用计数数组(64K, 256KB), 避免n很小时频繁退化
+    private static final int MIN_COUNT_RANGE = 1 << 16;
+
+    //不同值的个数不超过 n 的该分之一时，使用哈希计数
+    private static final int HASH_DISTINCT_DIVISOR = 16;
+
+    /**
+     * 自适应计数排序 入口函数
+     * @param a 待排数组
+     */
+    public static void adaptiveCountSort(int[] a){
+        if(a == null) return;
+        adaptiveCountSort(a,0,a.length-1);
+    }
+
+    /**
+     * 自适应计数排序 排序区间[l,r]
+     * @param a 待排数组
+     * @param l 左边界
+     * @param r 右边界
+     */
+    public static void adaptiveCountSort(int[] a,int l,int r){
+        if(a == null || l >= r) return;
+
+        int n = r - l + 1;
+        int min_value=a[l], max_value=a[l];
+        for(int i=l+1;i<=r;i++){
+            if(a[i] > max_value) max_value = a[i];
+            else if(a[i] < min_value) min_value = a[i];
+        }
+
+        //使用long计算，避免溢出
+        long range = (long)max_value - min_value + 1;
+        if(range <= Math.max(n, MIN_COUNT_RANGE)){
+            int[] aux = new int[(int)range];
+            for(int i=l;i<=r;i++) aux[a[i]-min_value]++;
+            fill(a,l,aux,min_value);
+            return;
+        }
+
+        if(!hashCountSort(a,l,r,n / HASH_DISTINCT_DIVISOR)){
+            RadixSort.lsdRadixSort(a,l,r);
+        }
+    }
+
+    /**
+     * 哈希计数排序 排序区间[l,r]
+     * 使用开放寻址(线性探测)的哈希表统计每个值的个数, 不同值的个数超过maxDistinct时放弃
+     * @return 不同值的个数超过maxDistinct时返回false, 此时数组没有被修改
+     */
+    private static boolean hashCountSort(int[] a,int l,int r,int maxDistinct){
+        if(maxDistinct < 1) return false;
+
+        //容量为2的幂，装载因子不超过0.5
+        int capacity = Integer.highestOneBit(maxDistinct) << 2;
+        int mask = capacity - 1;
+        int shift = Integer.SIZE - Integer.numberOfTrailingZeros(capacity);
+        int[] keys = new int[capacity];
+        int[] counts = new int[capacity];       //计数为0表示空位
+
+        int distinct = 0;
+        for(int i=l;i<=r;i++){
+            int v = a[i];
+            //Fibonacci散列，取乘积的高位
+            int slot = (v * 0x9E3779B9) >>> shift;
+            while(counts[slot] != 0 && keys[slot] != v) slot = (slot + 1) & mask;
+            if(counts[slot] == 0){
+                if(++distinct > maxDistinct) return false;
+                keys[slot] = v;
+            }
+            counts[slot]++;
+        }
+
+        //只对不同的值排序
+        int[] values = new int[distinct];
+        for(int s=0,k=0;s<capacity;s++){
+            if(counts[s] != 0) values[k++] = keys[s];
+        }
+        RadixSort.lsdRadixSort(values);
+
+        //按排好序的值写回，每个值的个数从哈希表中查找
+        int index = l;
+        for(int v:values){
+            int slot = (v * 0x9E3779B9) >>> shift;
+            while(keys[slot] != v || counts[slot] == 0) slot = (slot + 1) & mask;
+            for(int c=counts[slot];c>0;c--) a[index++] = v;
+        }
+        return true;
+    }
+
+//-------------------------------------按键计数排序(对象)----------------------------------------------
+
+    /*
+     * 对象数组按一个较小的整数键排序(状态码、优先级、分片号等), 不需要比较:
+     *      1. 提取每个元素的键, 缓存到int数组, 每个元素只调用一次keyExtractor;
+     *      2. 统计每个键的个数, 前缀和得到每个键在输出中的起始位置;
+     *      3. 从前往后把元素分配到辅助数组, 相同键的元素保持原来的顺序(稳定);
+     *      4. 复制回原数组。
+     *
+     *      键的范围太大时(与adaptiveCountSort的判断相同)计数数组没有优势, 使用按键比较的MyTimSort, 同样稳定。
+     */
+
+    /**
+     * 按键计数排序 入口函数
+     * @param a 待排数组
+     * @param keyExtractor 提取排序键
+     * @param <T> 元素类型
+     */
+    public static <T> void countSort(T[] a, ToIntFunction<? super T> keyExtractor){
+        if(a == null) return;
+        countSort(a,0,a.length-1,keyExtractor);
+    }
+
+    /**
+     * 按键计数排序 排序区间[l,r], 稳定
+     * @param a 待排数组
+     * @param l 左边界
+     * @param r 右边界
+     * @param keyExtractor 提取排序键
+     * @param <T> 元素类型
+     */
+    public static <T> void countSort(T[] a, int l, int r, ToIntFunction<? super T> keyExtractor){
+        if(a == null || l >= r) return;
+
+        int n = r - l + 1;
+        int[] keys = new int[n];
+        int min_value = Integer.MAX_VALUE, max_value = Integer.MIN_VALUE;
+        for(int i=0;i<n;i++){
+            int k = keyExtractor.applyAsInt(a[l+i]);
+            keys[i] = k;
+            if(k > max_value) max_value = k;
+            if(k < min_value) min_value = k;
+        }
+
+        long range = (long)max_value - min_value + 1;
+        if(range > Math.max(n, MIN_COUNT_RANGE)){
+            MyTimSort.sort(a,l,r+1,Comparator.comparingInt(keyExtractor));
+            return;
+        }
+
+        //count[k] 变为键 k+min_value 在输出中的起始位置
+        int[] count = new int[(int)range];
+        for(int k:keys) count[k-min_value]++;
+        for(int i=0,sum=0;i<count.length;i++){
+            int c = count[i];
+            count[i] = sum;
+            sum += c;
+        }
+
+        //从前往后分配，保证稳定
+        Object[] aux = new Object[n];
+        for(int i=0;i<n;i++){
+            aux[count[keys[i]-min_value]++] = a[l+i];
+        }
+        System.arraycopy(aux,0,a,l,n);
+    }
+
     /**
      *
      * 测试规模：100000000 一亿
@@ -0,0 +1,41 @@
+package sort;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * @className: CountedTask
+ * @description: 并行排序的子任务, 在工作线程中沿用创建任务时的计数器
+ *
+ *              SortCounter的计数器绑定在调用measure()的线程上, ForkJoinPool的工作线程没有计数器。
+ *              子任务在创建时记下当前线程的计数器, doCompute()执行期间把它设置为工作线程的计数器,
+ *              结束后恢复。没有开启计数时直接执行doCompute()。
+ *
+ * @author: agent
+ * @date: 2026/10/17
+ */
+abstract class CountedTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    //创建任务的线程上的计数器, 没有开启计数或不在measure()中时为null
+    private final transient SortCounter counter = SortCounter.ENABLED ? SortCounter.current() : null;
+
+    @Override
+    protected final void compute() {
+        if(counter == null){
+            doCompute();
+            return;
+        }
+        SortCounter prev = SortCounter.enter(counter);
+        try{
+            doCompute();
+        }finally{
+            SortCounter.exit(prev);
+        }
+    }
+
+    /**
+     * 任务的计算
+     */
+    protected abstract void doCompute();
+}
@@ -0,0 +1,416 @@
+package sort;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.stream.Stream;
+
+/**
+ * @className: ExternalSort
+ * @description: 外部归并排序, 排序装不进堆内存的文件
+ *
+ *              sort.* 中的其他排序都要求所有元素放在一个数组中, 文件远大于堆内存时无法使用。
+ *
+ *              算法描述:
+ *                  1. 生成run: 按内存预算读入一块数据, 使用内存排序(文本行 MyTimSort, long LSD基数排序)
+ *                     排好序后写入临时目录中的一个run文件, 直到读完输入;
+ *                  2. 多路归并: 每个run打开一个带缓冲区的读取器, 用KWayMerge的败者树一次合并所有run;
+ *                     run的个数超过MAX_FAN_IN时, 先每MAX_FAN_IN个合并成一个更长的run, 避免同时打开过多文件。
+ *                     long使用基本类型的败者树(KWayMerge.merge(List<PrimitiveIterator.OfLong>)), 合并时不装箱。
+ *
+ *              支持两种格式:
+ *                  sortLines   UTF-8文本, 每行一条记录, 按比较器排序, 稳定
+ *                  sortLongs   大端序的long(DataOutput.writeLong的格式), 按数值排序
+ *
+ *              内存预算默认为最大堆内存的1/4, 剩余的内存留给排序的辅助数组和调用方。
+ *              临时目录默认为java.io.tmpdir, 需要有与输入相当的剩余空间, 排序结束后删除。
+ *
+ *              算法复杂度分析：
+ *                  时间复杂度：O(n*log(n)), 读写磁盘 2 + ⌈log(run个数)/log(MAX_FAN_IN)⌉ - 1 趟
+ *                  空间复杂度：内存 O(内存预算 + MAX_FAN_IN*BUFFER_SIZE), 磁盘 O(n)
+ *
+ * @author: agent
+ * @date: 2026/10/17
+ */
+public final class ExternalSort {
+
+    //一趟最多合并的run个数
+    private static final int MAX_FAN_IN = 128;
+
+    //每个文件的读写缓冲区大小
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    //估算一行占用的内存: String和数组的对象头、引用等固定开销
+    private static final int LINE_OVERHEAD = 64;
+
+    private ExternalSort(){
+    }
+
+//-------------------------------------文本行----------------------------------------------
+
+    /**
+     * 按自然顺序排序UTF-8文本文件的每一行
+     * @param input 输入文件
+     * @param output 输出文件, 已存在时覆盖
+     */
+    public static void sortLines(Path input, Path output) throws IOException {
+        sortLines(input, output, Comparator.naturalOrder(), defaultMemory(), null);
+    }
+
+    /**
+     * 使用比较器排序UTF-8文本文件的每一行, 稳定
+     * @param input 输入文件
+     * @param output 输出文件, 已存在时覆盖, 每行以'\n'结尾
+     * @param c 比较器
+     * @param memoryBytes 每个run使用的内存预算(字节)
+     * @param tmpDir 临时目录, 为null时使用java.io.tmpdir
+     */
+    public static void sortLines(Path input, Path output, Comparator<? super String> c, long memoryBytes, Path tmpDir) throws IOException {
+        checkMemory(memoryBytes);
+        Path dir = createTempDir(tmpDir);
+        try{
+            List<Path> runs = new ArrayList<>();
+            try(BufferedReader in = newReader(input)){
+                List<String> chunk = new ArrayList<>();
+                long used = 0;
+                String line;
+                while((line = in.readLine()) != null){
+                    chunk.add(line);
+                    used += LINE_OVERHEAD + 2L * line.length();
+                    if(used >= memoryBytes){
+                        runs.add(writeLineRun(chunk, c, dir));
+                        chunk.clear();
+                        used = 0;
+                    }
+                }
+                if(!chunk.isEmpty() || runs.isEmpty()) runs.add(writeLineRun(chunk, c, dir));
+            }
+            merge(runs, output, (group, out, resources) -> mergeLines(group, out, c, resources), dir);
+        }finally{
+            deleteAll(dir);
+        }
+    }
+
+    /**
+     * 排序一块文本行, 写入新的run文件
+     */
+    private static Path writeLineRun(List<String> chunk, Comparator<? super String> c, Path dir) throws IOException {
+        String[] a = chunk.toArray(new String[0]);
+        MyTimSort.sort(a, 0, a.length, c);
+        Path run = Files.createTempFile(dir, "run", null);
+        writeLines(Arrays.asList(a).iterator(), run);
+        return run;
+    }
+
+    /**
+     * 合并一组文本行run到out
+     */
+    private static void mergeLines(List<Path> runs, Path out, Comparator<? super String> c, List<Closeable> resources) throws IOException {
+        List<Iterator<String>> sources = new ArrayList<>();
+        for(Path run : runs){
+            BufferedReader in = newReader(run);
+            resources.add(in);
+            sources.add(new LineIterator(in));
+        }
+        writeLines(KWayMerge.merge(sources, c), out);
+    }
+
+    private static void writeLines(Iterator<String> it, Path out) throws IOException {
+        try(Writer w = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(out), StandardCharsets.UTF_8), BUFFER_SIZE)){
+            while(it.hasNext()){
+                w.write(it.next());
+                w.write('\n');
+            }
+        }
+    }
+
+    private static BufferedReader newReader(Path file) throws IOException {
+        return new BufferedReader(new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    /**
+     * 按行读取run文件
+     */
+    private static final class LineIterator implements Iterator<String> {
+        private final BufferedReader in;
+        private String next;
+
+        LineIterator(BufferedReader in) throws IOException {
+            this.in = in;
+            next = in.readLine();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public String next() {
+            if(next == null) throw new NoSuchElementException();
+            String line = next;
+            try{
+                next = in.readLine();
+            }catch(IOException e){
+                throw new UncheckedIOException(e);
+            }
+            return line;
+        }
+    }
+
+//-------------------------------------long----------------------------------------------
+
+    /**
+     * 排序大端序long文件
+     * @param input 输入文件, 长度必须是8的倍数
+     * @param output 输出文件, 已存在时覆盖
+     */
+    public static void sortLongs(Path input, Path output) throws IOException {
+        sortLongs(input, output, defaultMemory(), null);
+    }
+
+    /**
+     * 排序大端序long文件
+     * @param input 输入文件, 长度必须是8的倍数
+     * @param output 输出文件, 已存在时覆盖
+     * @param memoryBytes 每个run使用的内存预算(字节)
+     * @param tmpDir 临时目录, 为null时使用java.io.tmpdir
+     */
+    public static void sortLongs(Path input, Path output, long memoryBytes, Path tmpDir) throws IOException {
+        checkMemory(memoryBytes);
+        long size = Files.size(input);
+        if(size % Long.BYTES != 0) throw new IllegalArgumentException("input length must be a multiple of 8: " + size);
+        long total = size / Long.BYTES;
+        //LSD基数排序需要等长的辅助数组, 每个元素占 2*8 字节
+        int chunk = (int) Math.min(Math.max(memoryBytes / (2 * Long.BYTES), 1), Math.min(total, Integer.MAX_VALUE - 8));
+
+        Path dir = createTempDir(tmpDir);
+        try{
+            List<Path> runs = new ArrayList<>();
+            try(FileChannel in = FileChannel.open(input, StandardOpenOption.READ)){
+                ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE);
+                buf.flip();
+                long[] a = new long[chunk];
+                long done = 0;
+                do{
+                    int n = (int) Math.min(chunk, total - done);
+                    readLongs(in, buf, a, n);
+                    long[] part = n == chunk ? a : Arrays.copyOf(a, n);
+                    RadixSort.lsdRadixSort(part);
+                    runs.add(writeLongRun(part, dir));
+                    done += n;
+                }while(done < total);
+            }
+            merge(runs, output, ExternalSort::mergeLongs, dir);
+        }finally{
+            deleteAll(dir);
+        }
+    }
+
+    /**
+     * 从channel读取n个long到a[0...n), buf中可能有上一次剩下的字节
+     */
+    private static void readLongs(FileChannel in, ByteBuffer buf, long[] a, int n) throws IOException {
+        int i = 0;
+        while(i < n){
+            if(buf.remaining() < Long.BYTES){
+                buf.compact();
+                int read = in.read(buf);
+                buf.flip();
+                if(read < 0) throw new EOFException();
+                continue;
+            }
+            int m = Math.min(n - i, buf.remaining() / Long.BYTES);
+            buf.asLongBuffer().get(a, i, m);
+            buf.position(buf.position() + m * Long.BYTES);
+            i += m;
+        }
+    }
+
+    private static Path writeLongRun(long[] a, Path dir) throws IOException {
+        Path run = Files.createTempFile(dir, "run", null);
+        try(FileChannel out = FileChannel.open(run, StandardOpenOption.WRITE)){
+            ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE);
+            for(int i=0;i<a.length;){
+                int m = Math.min(a.length - i, BUFFER_SIZE / Long.BYTES);
+                buf.clear();
+                buf.asLongBuffer().put(a, i, m);
+                buf.limit(m * Long.BYTES);
+                while(buf.hasRemaining()) out.write(buf);
+                i += m;
+            }
+        }
+        return run;
+    }
+
+    /**
+     * 合并一组long run到out, 使用KWayMerge的long败者树, 读取、比较和写出都不装箱
+     */
+    private static void mergeLongs(List<Path> runs, Path out, List<Closeable> resources) throws IOException {
+        List<PrimitiveIterator.OfLong> sources = new ArrayList<>();
+        for(Path run : runs){
+            FileChannel in = FileChannel.open(run, StandardOpenOption.READ);
+            resources.add(in);
+            sources.add(new LongIterator(in, in.size() / Long.BYTES));
+        }
+        PrimitiveIterator.OfLong it = KWayMerge.merge(sources);
+        try(FileChannel ch = FileChannel.open(out, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)){
+            ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE);
+            while(it.hasNext()){
+                buf.putLong(it.nextLong());
+                if(!buf.hasRemaining()) flush(ch, buf);
+            }
+            flush(ch, buf);
+        }
+    }
+
+    private static void flush(FileChannel ch, ByteBuffer buf) throws IOException {
+        buf.flip();
+        while(buf.hasRemaining()) ch.write(buf);
+        buf.clear();
+    }
+
+    /**
+     * 按缓冲区读取run文件中的long
+     */
+    private static final class LongIterator implements PrimitiveIterator.OfLong {
+        private final FileChannel in;
+        private final ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE);
+        private long remaining;
+
+        LongIterator(FileChannel in, long count) {
+            this.in = in;
+            this.remaining = count;
+            buf.flip();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public long nextLong() {
+            if(remaining == 0) throw new NoSuchElementException();
+            try{
+                while(buf.remaining() < Long.BYTES){
+                    buf.compact();
+                    int read = in.read(buf);
+                    buf.flip();
+                    if(read < 0) throw new EOFException();
+                }
+            }catch(IOException e){
+                throw new UncheckedIOException(e);
+            }
+            remaining--;
+            return buf.getLong();
+        }
+    }
+
+//-------------------------------------多路归并----------------------------------------------
+
+    /**
+     * 合并一组run的方式, 文本行和long各一种
+     */
+    private interface RunMerger {
+        /**
+         * 合并runs到out, 打开的文件加入resources, 由调用方关闭
+         */
+        void merge(List<Path> runs, Path out, List<Closeable> resources) throws IOException;
+    }
+
+    /**
+     * 合并所有run到output, run的个数超过MAX_FAN_IN时分多趟合并
+     */
+    private static void merge(List<Path> runs, Path output, RunMerger merger, Path dir) throws IOException {
+        while(runs.size() > MAX_FAN_IN){
+            List<Path> next = new ArrayList<>();
+            for(int i=0;i<runs.size();i+=MAX_FAN_IN){
+                Path run = Files.createTempFile(dir, "run", null);
+                mergeTo(runs.subList(i, Math.min(i + MAX_FAN_IN, runs.size())), run, merger);
+                next.add(run);
+            }
+            runs = next;
+        }
+        mergeTo(runs, output, merger);
+    }
+
+    /**
+     * 合并一组run到out, 合并后删除这些run, 尽早释放磁盘空间
+     */
+    private static void mergeTo(List<Path> runs, Path out, RunMerger merger) throws IOException {
+        if(runs.size() == 1){
+            Files.move(runs.get(0), out, StandardCopyOption.REPLACE_EXISTING);
+            return;
+        }
+        List<Closeable> resources = new ArrayList<>();
+        try{
+            merger.merge(runs, out, resources);
+        }catch(UncheckedIOException e){
+            throw e.getCause();
+        }finally{
+            closeAll(resources);
+        }
+        for(Path run : runs) Files.delete(run);
+    }
+
+//-------------------------------------辅助方法----------------------------------------------
+
+    private static long defaultMemory(){
+        return Runtime.getRuntime().maxMemory() / 4;
+    }
+
+    private static void checkMemory(long memoryBytes){
+        if(memoryBytes <= 0) throw new IllegalArgumentException("memoryBytes must be > 0: " + memoryBytes);
+    }
+
+    private static Path createTempDir(Path tmpDir) throws IOException {
+        return tmpDir == null ? Files.createTempDirectory("external-sort") : Files.createTempDirectory(tmpDir, "external-sort");
+    }
+
+    /**
+     * 删除临时目录和其中剩下的run文件
+     */
+    private static void deleteAll(Path dir) throws IOException {
+        try(Stream<Path> files = Files.list(dir)){
+            for(Iterator<Path> it = files.iterator(); it.hasNext();) Files.deleteIfExists(it.next());
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    /**
+     * 关闭所有资源, 抛出第一个异常, 其余的异常作为suppressed
+     */
+    private static void closeAll(List<Closeable> resources) throws IOException {
+        IOException error = null;
+        for(Closeable r : resources){
+            try{
+                r.close();
+            }catch(IOException e){
+                if(error == null) error = e;
+                else error.addSuppressed(e);
+            }
+        }
+        if(error != null) throw error;
+    }
+}
@@ -90,6 +90,256 @@ public class HeapSort extends BaseSort implements SortedCompared{
         }
     }
 
+//---------------------------------区间堆排序---------------------------------
+
+    /*
+     * 对区间[l,r]建堆并排序, 堆顶为a[l], 下标i和边界bound都相对于l。
+     * 供QuickSort.introSort在递归过深时使用, 保证最坏O(n*log(n))。
+     * heapify使用循环代替递归, 下沉时只移动元素, 最后一次写回。
+     */
+
+    /**
+     * 堆排序 排序区间[l,r]
+     * @param a 待排数组
+     * @param l 左边界
+     * @param r 右边界
+     * @param <K> 泛型类型
+     */
+    static <K extends Comparable<K>> void heapSort(K[] a,int l,int r){
+        int length = r-l+1;
+        for(int i=(length>>1)-1;i>=0;i--){
+            heapify(a,l,i,length);
+        }
+        for(int i=length-1;i>0;i--){
+            swap(a,l,l+i);
+            heapify(a,l,0,i);
+        }
+    }
+
+    /**
+     * 调整堆, 堆顶为a[l], 针对第i个元素重建堆
+     * @param a 数组
+     * @param l 堆顶下标
+     * @param i 相对于l的下标
+     * @param bound 堆的大小
+     * @param <K> 泛型类型
+     */
+    public static <K extends Comparable<K>> void heapify(K[] a,int l,int i,int bound){
+        K tmp = a[l+i];
+        int child, moves = 1;
+        while((child = i*2+1) < bound){
+            //选出较大的孩子
+            if(child+1 < bound && less(a[l+child],a[l+child+1])) child++;
+            if(!less(tmp,a[l+child])) break;
+            a[l+i] = a[l+child];
+            i = child;
+            moves++;
+        }
+        a[l+i] = tmp;
+        countMoves(moves);
+    }
+
+//---------------------------------基本类型 int/long/float/double 实现---------------------------------
+
+    /*
+     * 基本类型版本直接使用 < 比较, 不需要装箱, 也没有compareTo的虚调用。
+     * heapify使用循环代替递归, 下沉时只移动元素, 最后一次写回, 代替每层一次swap。
+     * 入口先调用BaseSort.presort()预扫描, 已有序或严格递减时不需要建堆。
+     * float/double 按照Double.compare的约定排序: NaN排在最后, -0.0排在0.0之前。
+     */
+
+    /**
+     * 堆排序 int版本
+     */
+    public static void heapSort(int[] a){
+        if(a == null || presort(a,0,a.length-1) != PRESORT_NONE) return;
+        heapSort(a,0,a.length-1);
+    }
+
+    /**
+     * 堆排序 long版本
+     */
+    public static void heapSort(long[] a){
+        if(a == null || presort(a,0,a.length-1) != PRESORT_NONE) return;
+        heapSort(a,0,a.length-1);
+    }
+
+    /**
+     * 堆排序 float版本
+     */
+    public static void heapSort(float[] a){
+        if(a == null) return;
+        int r = moveNaNToEnd(a,0,a.length-1);
+        if(presort(a,0,r) == PRESORT_NONE) heapSort(a,0,r);
+        sortNegativeZero(a,0,r);
+    }
+
+    /**
+     * 堆排序 double版本
+     */
+    public static void heapSort(double[] a){
+        if(a == null) return;
+        int r = moveNaNToEnd(a,0,a.length-1);
+        if(presort(a,0,r) == PRESORT_NONE) heapSort(a,0,r);
+        sortNegativeZero(a,0,r);
+    }
+
+    /**
+     * 堆排序 int版本 排序区间[l,r], 堆顶为a[l]
+     */
+    static void heapSort(int[] a,int l,int r){
+        int length = r-l+1;
+        //构建最大堆
+        for(int i=(length>>1)-1;i>=0;i--){
+            heapify(a,l,i,length);
+        }
+        for(int i=length-1;i>0;i--){
+            //把最大值放到区间末尾，缩小边界后调整堆
+            swap(a,l,l+i);
+            heapify(a,l,0,i);
+        }
+    }
+
+    /**
+     * 调整堆 int版本，针对第i个元素重建堆
+     */
+    public static void heapify(int[] a,int i,int bound){
+        heapify(a,0,i,bound);
+    }
+
+    /**
+     * 调整堆 int版本，堆顶为a[l], i和bound都是相对于l的下标
+     */
+    public static void heapify(int[] a,int l,int i,int bound){
+        int tmp = a[l+i];
+        int child;
+        while((child = i*2+1) < bound){
+            //选出较大的孩子
+            if(child+1 < bound && a[l+child] < a[l+child+1]) child++;
+            if(!(tmp < a[l+child])) break;
+            a[l+i] = a[l+child];
+            i = child;
+        }
+        a[l+i] = tmp;
+    }
+
+    /**
+     * 堆排序 long版本 排序区间[l,r], 堆顶为a[l]
+     */
+    static void heapSort(long[] a,int l,int r){
+        int length = r-l+1;
+        //构建最大堆
+        for(int i=(length>>1)-1;i>=0;i--){
+            heapify(a,l,i,length);
+        }
+        for(int i=length-1;i>0;i--){
+            //把最大值放到区间末尾，缩小边界后调整堆
+            swap(a,l,l+i);
+            heapify(a,l,0,i);
+        }
+    }
+
+    /**
+     * 调整堆 long版本，针对第i个元素重建堆
+     */
+    public static void heapify(long[] a,int i,int bound){
+        heapify(a,0,i,bound);
+    }
+
+    /**
+     * 调整堆 long版本，堆顶为a[l], i和bound都是相对于l的下标
+     */
+    public static void heapify(long[] a,int l,int i,int bound){
+        long tmp = a[l+i];
+        int child;
+        while((child = i*2+1) < bound){
+            //选出较大的孩子
+            if(child+1 < bound && a[l+child] < a[l+child+1]) child++;
+            if(!(tmp < a[l+child])) break;
+            a[l+i] = a[l+child];
+            i = child;
+        }
+        a[l+i] = tmp;
+    }
+
+    /**
+     * 堆排序 float版本 排序区间[l,r], 堆顶为a[l]
+     */
+    static void heapSort(float[] a,int l,int r){
+        int length = r-l+1;
+        //构建最大堆
+        for(int i=(length>>1)-1;i>=0;i--){
+            heapify(a,l,i,length);
+        }
+        for(int i=length-1;i>0;i--){
+            //把最大值放到区间末尾，缩小边界后调整堆
+            swap(a,l,l+i);
+            heapify(a,l,0,i);
+        }
+    }
+
+    /**
+     * 调整堆 float版本，针对第i个元素重建堆
+     */
+    public static void heapify(float[] a,int i,int bound){
+        heapify(a,0,i,bound);
+    }
+
+    /**
+     * 调整堆 float版本，堆顶为a[l], i和bound都是相对于l的下标
+     */
+    public static void heapify(float[] a,int l,int i,int bound){
+        float tmp = a[l+i];
+        int child;
+        while((child = i*2+1) < bound){
+            //选出较大的孩子
+            if(child+1 < bound && a[l+child] < a[l+child+1]) child++;
+            if(!(tmp < a[l+child])) break;
+            a[l+i] = a[l+child];
+            i = child;
+        }
+        a[l+i] = tmp;
+    }
+
+    /**
+     * 堆排序 double版本 排序区间[l,r], 堆顶为a[l]
+     */
+    static void heapSort(double[] a,int l,int r){
+        int length = r-l+1;
+        //构建最大堆
+        for(int i=(length>>1)-1;i>=0;i--){
+            heapify(a,l,i,length);
+        }
+        for(int i=length-1;i>0;i--){
+            //把最大值放到区间末尾，缩小边界后调整堆
+            swap(a,l,l+i);
+            heapify(a,l,0,i);
+        }
+    }
+
+    /**
+     * 调整堆 double版本，针对第i个元素重建堆
+     */
+    public static void heapify(double[] a,int i,int bound){
+        heapify(a,0,i,bound);
+    }
+
+    /**
+     * 调整堆 double版本，堆顶为a[l], i和bound都是相对于l的下标
+     */
+    public static void heapify(double[] a,int l,int i,int bound){
+        double tmp = a[l+i];
+        int child;
+        while((child = i*2+1) < bound){
+            //选出较大的孩子
+            if(child+1 < bound && a[l+child] < a[l+child+1]) child++;
+            if(!(tmp < a[l+child])) break;
+            a[l+i] = a[l+child];
+            i = child;
+        }
+        a[l+i] = tmp;
+    }
+
 
     /**
      * 测试规模：5000000 五百万
@@ -0,0 +1,286 @@
+package sort;
+
+import util.RandomArrayUtil;
+import util.StopWatch;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * @className: InPlaceMergeSort
+ * @description: 原地稳定归并排序, 只需要O(1)或O(√n)的额外空间
+ *
+ *              MergeSort / MyTimSort 合并时需要O(n)的辅助数组, 数组已经占用大部分堆内存时会OOM;
+ *              InsertionSort 不需要辅助数组, 但是O(n^2)。
+ *
+ *              算法描述:
+ *                  1. 把数组分成长度为BLOCK的块, 每块使用插入排序;
+ *                  2. 自底向上, 宽度从BLOCK开始每趟翻倍, 两两合并相邻的有序区间;
+ *                  3. 合并区间[lo,mid) [mid,hi):
+ *                      a. a[mid-1] <= a[mid] 时已经有序, 跳过;
+ *                      b. 较短的一侧不超过缓冲区长度时, 把它复制到缓冲区再合并(与MyTimSort的mergeLo/mergeHi相同);
+ *                      c. 否则使用SymMerge(Kim & Kutzner): 二分查找切分点, 把中间两段旋转(三次反转)交换位置,
+ *                         问题变成两个规模减半的合并, 递归处理, 直到较短的一侧能放进缓冲区或只剩一个元素。
+ *
+ *              缓冲区长度默认为√n, 也可以指定为0, 此时完全原地, 只使用O(log(n))的递归栈。
+ *
+ *              算法复杂度分析：
+ *                  时间复杂度：
+ *                          比较 O(n*log(n))   移动 最坏O(n*log(n)^2), 缓冲区能放下较短一侧时与普通归并相同
+ *                  空间复杂度：
+ *                          O(√n) 缓冲区 或 O(1), 另外O(log(n))的递归栈
+ *                  稳定性：
+ *                          稳定
+ *
+ * @author: agent
+ * @date: 2026/10/17
+ */
+public class InPlaceMergeSort extends BaseSort implements SortedCompared{
+
+    //插入排序的块长度
+    private static final int BLOCK = 20;
+
+//-------------------------------------入口----------------------------------------------
+
+    /**
+     * 原地稳定归并排序, 使用长度为√n的缓冲区
+     * @param a 待排数组
+     * @param <K> 类型
+     */
+    public static <K extends Comparable<K>> void sort(K[] a){
+        sort(a, Comparator.naturalOrder());
+    }
+
+    /**
+     * 使用比较器的原地稳定归并排序, 使用长度为√n的缓冲区
+     * @param a 待排数组
+     * @param c 比较器
+     * @param <T> 类型
+     */
+    public static <T> void sort(T[] a, Comparator<? super T> c){
+        if(a == null) return;
+        sort(a, c, (int) Math.sqrt(a.length));
+    }
+
+    /**
+     * 使用比较器的原地稳定归并排序
+     * @param a 待排数组
+     * @param c 比较器
+     * @param bufferLength 缓冲区长度, 为0时完全原地
+     * @param <T> 类型
+     */
+    public static <T> void sort(T[] a, Comparator<? super T> c, int bufferLength){
+        if(a == null) return;
+        if(bufferLength < 0) throw new IllegalArgumentException("bufferLength must be >= 0: " + bufferLength);
+        int n = a.length;
+        if(n < 2) return;
+        if(SortCounter.ENABLED) c = SortCounter.counting(c);
+
+        for(int lo=0;lo<n;lo+=BLOCK){
+            insertionSort(a, lo, Math.min(lo+BLOCK, n), c);
+        }
+
+        Object[] buffer = new Object[Math.min(bufferLength, n >> 1)];
+        countAllocation(buffer.length);
+        //width和lo都不会超过n, 不会溢出
+        for(int width=BLOCK;width<n;width = width <= (n >> 1) ? width << 1 : n){
+            for(int lo=0;lo<n-width;){
+                int mid = lo + width, hi = n - mid > width ? mid + width : n;
+                merge(a, lo, mid, hi, c, buffer);
+                lo = hi;
+            }
+        }
+    }
+
+//-------------------------------------合并----------------------------------------------
+
+    /**
+     * 合并有序区间[lo,mid) [mid,hi)
+     */
+    private static <T> void merge(T[] a, int lo, int mid, int hi, Comparator<? super T> c, Object[] buffer){
+        if(lo >= mid || mid >= hi || c.compare(a[mid-1], a[mid]) <= 0) return;
+
+        int len1 = mid - lo, len2 = hi - mid;
+        if(len1 <= len2 && len1 <= buffer.length){
+            mergeLo(a, lo, mid, hi, c, buffer);
+            return;
+        }
+        if(len2 <= buffer.length){
+            mergeHi(a, lo, mid, hi, c, buffer);
+            return;
+        }
+        symMerge(a, lo, mid, hi, c, buffer);
+    }
+
+    /**
+     * 左侧较短: 把左侧复制到缓冲区, 从左往右合并
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> void mergeLo(T[] a, int lo, int mid, int hi, Comparator<? super T> c, Object[] buffer){
+        int len1 = mid - lo;
+        System.arraycopy(a, lo, buffer, 0, len1);
+        int i = 0, j = mid, k = lo;
+        while(i < len1 && j < hi){
+            //相等时取左边的元素，保证稳定
+            if(c.compare(a[j], (T) buffer[i]) < 0) a[k++] = a[j++];
+            else a[k++] = (T) buffer[i++];
+        }
+        if(i < len1) System.arraycopy(buffer, i, a, k, len1 - i);
+        Arrays.fill(buffer, 0, len1, null);
+        countMoves(len1 + (hi - lo));
+    }
+
+    /**
+     * 右侧较短: 把右侧复制到缓冲区, 从右往左合并
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> void mergeHi(T[] a, int lo, int mid, int hi, Comparator<? super T> c, Object[] buffer){
+        int len2 = hi - mid;
+        System.arraycopy(a, mid, buffer, 0, len2);
+        int i = mid - 1, j = len2 - 1, k = hi - 1;
+        while(i >= lo && j >= 0){
+            //相等时取右边的元素，保证稳定
+            if(c.compare((T) buffer[j], a[i]) < 0) a[k--] = a[i--];
+            else a[k--] = (T) buffer[j--];
+        }
+        if(j >= 0) System.arraycopy(buffer, 0, a, lo, j + 1);
+        Arrays.fill(buffer, 0, len2, null);
+        countMoves(len2 + (hi - lo));
+    }
+
+    /**
+     * SymMerge 合并有序区间[lo,mid) [mid,hi), 两侧都不能放进缓冲区时使用
+     *
+     *      以区间中点half为对称轴, 二分查找最小的start, 使得 a[start...mid) 与 a[mid...end) 交换位置后
+     *      (end = half + mid - start), 左半边[lo,half)的元素都 <= 右半边[half,hi)的元素;
+     *      旋转后分别合并 [lo,start) [start,half) 和 [half,end) [end,hi)。
+     */
+    private static <T> void symMerge(T[] a, int lo, int mid, int hi, Comparator<? super T> c, Object[] buffer){
+        //左侧只有一个元素: 插入到右侧中第一个大于它的位置之前
+        if(mid - lo == 1){
+            int l = mid, r = hi;
+            while(l < r){
+                int m = (l + r) >>> 1;
+                if(c.compare(a[m], a[lo]) < 0) l = m + 1;
+                else r = m;
+            }
+            T x = a[lo];
+            System.arraycopy(a, lo + 1, a, lo, l - 1 - lo);
+            a[l-1] = x;
+            countMoves(l - lo);
+            return;
+        }
+        //右侧只有一个元素: 插入到左侧中第一个大于它的位置
+        if(hi - mid == 1){
+            int l = lo, r = mid;
+            while(l < r){
+                int m = (l + r) >>> 1;
+                if(c.compare(a[mid], a[m]) < 0) r = m;
+                else l = m + 1;
+            }
+            T x = a[mid];
+            System.arraycopy(a, l, a, l + 1, mid - l);
+            a[l] = x;
+            countMoves(mid - l + 1);
+            return;
+        }
+
+        int half = (lo + hi) >>> 1;
+        int n = half + mid;
+        int start, r;
+        if(mid > half){
+            start = n - hi;
+            r = half;
+        }else{
+            start = lo;
+            r = mid;
+        }
+        int p = n - 1;
+        while(start < r){
+            int m = (start + r) >>> 1;
+            if(c.compare(a[p-m], a[m]) >= 0) start = m + 1;
+            else r = m;
+        }
+        int end = n - start;
+
+        if(start < mid && mid < end) rotate(a, start, mid, end);
+        if(lo < start && start < half) merge(a, lo, start, half, c, buffer);
+        if(half < end && end < hi) merge(a, half, end, hi, c, buffer);
+    }
+
+    /**
+     * 交换相邻区间[lo,mid) [mid,hi)的位置: 分别反转后整体反转
+     */
+    private static void rotate(Object[] a, int lo, int mid, int hi){
+        reverse(a, lo, mid - 1);
+        reverse(a, mid, hi - 1);
+        reverse(a, lo, hi - 1);
+    }
+
+    private static void reverse(Object[] a, int l, int r){
+        for(;l < r;l++,r--){
+            Object t = a[l];
+            a[l] = a[r];
+            a[r] = t;
+            if(SortCounter.ENABLED) SortCounter.swap();
+        }
+    }
+
+    /**
+     * 插入排序 区间[lo,hi)
+     */
+    private static <T> void insertionSort(T[] a, int lo, int hi, Comparator<? super T> c){
+        for(int i=lo+1;i<hi;i++){
+            T tmp = a[i];
+            int j = i;
+            for(; j > lo && c.compare(tmp, a[j-1]) < 0; j--) a[j] = a[j-1];
+            a[j] = tmp;
+            countMoves(i-j+1);
+        }
+    }
+
+    /**
+     * 测试规模：1000000 一百万
+     *
+     * 与MergeSort.advancedSort(O(n)辅助数组)对比:
+     * 缓冲区为√n时多出的开销来自SymMerge的旋转, 缓冲区为0时每次合并都需要旋转
+     */
+    @Override
+    public void sortingComparison() {
+        // 正常随机数组
+        Integer[] a11 = RandomArrayUtil.getRandomBoxedIntArray(0, 10000000, 1000000);
+        Integer[] a12 = Arrays.copyOf(a11, a11.length);
+        Integer[] a13 = Arrays.copyOf(a11, a11.length);
+
+        // 大量重复数组
+        Integer[] a21 = RandomArrayUtil.getRandomBoxedIntArray(0, 100, 1000000);
+        Integer[] a22 = Arrays.copyOf(a21, a21.length);
+        Integer[] a23 = Arrays.copyOf(a21, a21.length);
+
+        System.out.println("Array created!");
+
+        // MergeSort.advancedSort
+        StopWatch stopWatch = new StopWatch();
+        MergeSort.advancedSort(a11);
+        if(isSorted(a11))System.out.println(String.format(formatStringWithRandom, "MergeSort.advancedSort", stopWatch.elapsedTime()));
+        MergeSort.advancedSort(a21);
+        if(isSorted(a21))System.out.println(String.format(formatStringWithDuplicate, "MergeSort.advancedSort", stopWatch.elapsedTime()));
+        System.out.println();
+
+        // 缓冲区为√n
+        stopWatch = new StopWatch();
+        sort(a12);
+        if(isSorted(a12))System.out.println(String.format(formatStringWithRandom, "InPlaceMergeSort √n", stopWatch.elapsedTime()));
+        sort(a22);
+        if(isSorted(a22))System.out.println(String.format(formatStringWithDuplicate, "InPlaceMergeSort √n", stopWatch.elapsedTime()));
+        System.out.println();
+
+        // 完全原地
+        stopWatch = new StopWatch();
+        sort(a13, Comparator.naturalOrder(), 0);
+        if(isSorted(a13))System.out.println(String.format(formatStringWithRandom, "InPlaceMergeSort O(1)", stopWatch.elapsedTime()));
+        sort(a23, Comparator.naturalOrder(), 0);
+        if(isSorted(a23))System.out.println(String.format(formatStringWithDuplicate, "InPlaceMergeSort O(1)", stopWatch.elapsedTime()));
+        System.out.println();
+    }
+}
@@ -56,6 +56,7 @@ public class InsertionSort extends BaseSort implements SortedCompared{
                 else break;
             }
             a[j] = tmp;
+            countMoves(i-j+1);
         }
     }
 
@@ -77,6 +78,7 @@ public class InsertionSort extends BaseSort implements SortedCompared{
                 a[j]=a[j-1];
             }
             a[j] = tmp;
+            countMoves(i-j+1);
         }
     }
 
@@ -117,6 +119,7 @@ public class InsertionSort extends BaseSort implements SortedCompared{
     public static <K extends Comparable<K>> void twoPathInsertSort(K[] a) {
         int len = a.length;
         K[] b = (K[]) new Comparable[len];
+        countAllocation(len);
         b[0] = a[0];
         // 分别记录temp数组中最大值和最小值的位置
         int i, first, tail, k;
@@ -139,6 +142,7 @@ public class InsertionSort extends BaseSort implements SortedCompared{
                 while (less(a[i], b[((k - 1) + len) % len])) {
                     b[(k + len) % len] = b[(k - 1 + len) % len];
                     k = (k - 1 + len) % len;
+                    countMoves(1);
                 }
                 // 插入该值
                 b[(k + len) % len] = a[i];
@@ -150,6 +154,102 @@ public class InsertionSort extends BaseSort implements SortedCompared{
         for (k = 0; k < len; k++) {
             a[k] = b[(first + k) % len];
         }
+        //每个元素写入b一次, 写回a一次
+        countMoves(2*len);
+    }
+
+//-----------------------------基本类型 int/long/float/double 实现---------------------------------
+
+    /*
+     * 基本类型版本直接使用 < 比较, 不需要装箱成Integer[], 也没有compareTo的虚调用。
+     * float/double 按照Double.compare的约定排序: NaN排在最后, -0.0排在0.0之前。
+     *
+     * 区间版本 insertionSort(a,l,r) 同时作为QuickSort、MergeSort等排序对小数组的插排,
+     * 浮点数的区间版本要求区间内没有NaN, 所以不对外公开。
+     */
+
+    /**
+     * 标准插入排序 int版本
+     */
+    public static void insertionSort(int[] a){
+        if(a == null) return;
+        insertionSort(a,0,a.length-1);
+    }
+
+    /**
+     * 标准插入排序 long版本
+     */
+    public static void insertionSort(long[] a){
+        if(a == null) return;
+        insertionSort(a,0,a.length-1);
+    }
+
+    /**
+     * 标准插入排序 float版本
+     */
+    public static void insertionSort(float[] a){
+        if(a == null) return;
+        int r = moveNaNToEnd(a,0,a.length-1);
+        insertionSort(a,0,r);
+        sortNegativeZero(a,0,r);
+    }
+
+    /**
+     * 标准插入排序 double版本
+     */
+    public static void insertionSort(double[] a){
+        if(a == null) return;
+        int r = moveNaNToEnd(a,0,a.length-1);
+        insertionSort(a,0,r);
+        sortNegativeZero(a,0,r);
+    }
+
+    /**
+     * 插入排序 int版本 排序区间[l,r]
+     */
+    static void insertionSort(int[] a,int l,int r){
+        for(int i=l+1;i<=r;i++){
+            int tmp = a[i];
+            int j = i;
+            for(; j>l && tmp<a[j-1]; j--) a[j] = a[j-1];
+            a[j] = tmp;
+        }
+    }
+
+    /**
+     * 插入排序 long版本 排序区间[l,r]
+     */
+    static void insertionSort(long[] a,int l,int r){
+        for(int i=l+1;i<=r;i++){
+            long tmp = a[i];
+            int j = i;
+            for(; j>l && tmp<a[j-1]; j--) a[j] = a[j-1];
+            a[j] = tmp;
+        }
+    }
+
+    /**
+     * 插入排序 float版本 排序区间[l,r]
+     */
+    static void insertionSort(float[] a,int l,int r){
+        for(int i=l+1;i<=r;i++){
+            float tmp = a[i];
+            int j = i;
+            for(; j>l && tmp<a[j-1]; j--) a[j] = a[j-1];
+            a[j] = tmp;
+        }
+    }
+
+    /**
+     * 插入排序 double版本 排序区间[l,r]
+     */
+    static void insertionSort(double[] a,int l,int r){
+        for(int i=l+1;i<=r;i++){
+            double tmp = a[i];
+            int j = i;
+            for(; j>l && tmp<a[j-1]; j--) a[j] = a[j-1];
+            a[j] = tmp;
+        }
     }
 
 
@@ -0,0 +1,447 @@
+package sort;
+
+/**
+ * @className: IntTimSort
+ * @description: int[]版本的TimSort，入口为 MyTimSort.sort(int[] a)
+ *
+ *              算法与MyTimSort相同（run检测、折半插入、合并栈、Galloping mode），
+ *              比较直接使用 <，不需要装箱，也没有Comparator的虚调用
+ *
+ * @author: agent
+ * @date: 2026/10/17
+ */
+final class IntTimSort {
+
+    //待排数组
+    private final int[] a;
+
+    //使用TimSort算法的最小元素个数
+    private static final int MIN_MERGE = 32;
+
+    //临时数组tmp
+    private int[] tmp;
+    private int tmpBase;                //tmp切片的基准
+    private int tmpLen;                 //tmp切片的长度
+
+    //临时数组tmp的初始化长度
+    private static final int INITIAL_TMP_STORAGE_LENGTH = 256;
+
+    //模拟栈
+    private int stackSize = 0;          //栈中元素的数量
+    private final int[] runBase;
+    private final int[] runLen;
+
+    //进入Galloping mode的阈值
+    private static final int MIN_GALLOP = 7;
+
+    private int minGallop = MIN_GALLOP;
+
+    private IntTimSort(int[] a){
+        this.a = a;
+
+        int len = a.length;
+        int tlen = len < 2*INITIAL_TMP_STORAGE_LENGTH ? len >>> 1 : INITIAL_TMP_STORAGE_LENGTH;
+        tmp = new int[tlen];
+        tmpBase = 0;
+        tmpLen = tlen;
+
+        int stackLen = (len <    120  ?  5 :
+                        len <   1542  ? 10 :
+                        len < 119151  ? 24 : 49);
+        runBase = new int[stackLen];
+        runLen = new int[stackLen];
+    }
+
+    /**
+     * 排序区间 [lo,hi）, 思路见 MyTimSort.sort(T[] a, int lo, int hi, Comparator c)
+     */
+    static void sort(int[] a, int lo, int hi){
+
+        assert a != null && lo >= 0 && lo <= hi && hi <= a.length;
+
+        int nRemaining = hi - lo;
+        if(nRemaining < 2) return;
+
+        if(nRemaining < MIN_MERGE){
+            int initRunLen = countRunAndMakeAscending(a,lo,hi);
+            binarySort(a,lo,hi,lo+initRunLen);
+            return;
+        }
+
+        IntTimSort ts = new IntTimSort(a);
+        int minRunLen = minRunLength(nRemaining);
+        do{
+            int runLen = countRunAndMakeAscending(a,lo,hi);
+            if(runLen < minRunLen){
+                int force = nRemaining<minRunLen ? nRemaining:minRunLen;
+                binarySort(a,lo,lo+force,lo+runLen);
+                runLen = force;
+            }
+
+            ts.pushRun(lo,runLen);
+            ts.mergeCollapse();
+
+            lo += runLen;
+            nRemaining -= runLen;
+        }while(nRemaining > 0);
+
+        assert lo == hi;
+        ts.mergeForceCollapse();
+        assert ts.stackSize == 1;
+    }
+
+    /**
+     * 折半插入排序 排序区间[lo,start,hi), [lo,start）为已排好序的区间
+     */
+    private static void binarySort(int[] a, int lo, int hi, int start){
+        assert lo <= start && start <= hi;
+
+        for(;start<hi;start++){
+            int t = a[start];
+            int l=lo,r=start;
+            while(l<r){
+                int m = l + ((r-l)>>>1);
+                if(t < a[m])r = m;
+                else l = m+1;
+            }
+            System.arraycopy(a,l,a,l+1,start-l);
+            a[l] = t;
+        }
+    }
+
+    /**
+     * 计算run的长度, 严格递减序列反转后返回
+     */
+    private static int countRunAndMakeAscending(int[] a, int lo, int hi) {
+        assert lo < hi;
+
+        int runHi = lo+1;
+        if(runHi==hi) return 1;
+
+        if(a[runHi++] < a[lo]){
+            while(runHi < hi && a[runHi] < a[runHi-1])
+                runHi++;
+            reverseRange(a,lo,runHi);
+        }else{
+            while(runHi < hi && a[runHi] >= a[runHi-1])
+                runHi++;
+        }
+        return runHi-lo;
+    }
+
+    /**
+     * 反转数组 反转区域[lo,hi)
+     */
+    private static void reverseRange(int[] a, int lo, int hi) {
+        hi--;
+        while(lo<hi){
+            int t = a[lo];
+            a[lo++] = a[hi];
+            a[hi--] = t;
+        }
+    }
+
+    private static int minRunLength(int n) {
+        assert n >= 0;
+        int r = 0;
+        while (n >= MIN_MERGE) {
+            r |= (n & 1);
+            n >>= 1;
+        }
+        return n + r;
+    }
+
+    private void pushRun(int runBase, int runLen) {
+        this.runBase[stackSize] = runBase;
+        this.runLen[stackSize] = runLen;
+        stackSize++;
+    }
+
+    private void mergeCollapse() {
+        while(stackSize>1){
+            int n = stackSize - 2;
+            if(n>0 && runLen[n-1] <= runLen[n]+runLen[n+1]){
+                if(runLen[n-1] < runLen[n+1])n--;
+            }else if(runLen[n] > runLen[n+1]){
+                break;
+            }
+            mergeAt(n);
+        }
+    }
+
+    private void mergeForceCollapse() {
+        while(stackSize>1){
+            int n = stackSize - 2;
+            if(n>0 && runLen[n-1] < runLen[n+1]) n--;
+            mergeAt(n);
+        }
+    }
+
+    /**
+     * 合并run[i+1]到run[i], i == stackSize-2 || stackSize-3
+     */
+    private void mergeAt(int i) {
+        assert stackSize >= 2;
+        assert i == stackSize - 2 || i == stackSize - 3;
+
+        int base1 = runBase[i];
+        int len1 = runLen[i];
+        int base2 = runBase[i+1];
+        int len2 = runLen[i+1];
+
+        assert len1 > 0 && len2 > 0;
+        assert base1 + len1 == base2;
+
+        runLen[i] = len1+len2;
+        if(i == stackSize - 3){
+            runBase[i+1] = runBase[i+2];
+            runLen[i+1] = runLen[i+2];
+        }
+        stackSize--;
+
+        //run[i+1]的第一个元素在run[i]中的插入位置，之前的元素已经有序
+        int k = gallopRight(a[base2], a, base1, len1);
+        base1 += k;
+        len1 -= k;
+        if(len1==0)return;
+
+        //run[i]的最后一个元素在run[i+1]中的插入位置，之后的元素已经有序
+        len2 = gallopLeft(a[base1 + len1 - 1], a, base2, len2);
+        if(len2==0)return;
+
+        if(len1<len2){
+            mergeLo(base1,len1,base2,len2);
+        }else{
+            mergeHi(base1,len1,base2,len2);
+        }
+    }
+
+    /**
+     * 寻找左边界: a[base,base+len)中第一个 >= key 的偏移
+     */
+    private static int gallopLeft(int key, int[] a, int base, int len){
+        assert len > 0;
+
+        int lo = base, hi = base+len-1;
+        if(key > a[hi])return len;
+        while(lo<hi){
+            int m = lo + ((hi-lo)>>>1);
+            if(key > a[m])lo=m+1;
+            else hi=m;
+        }
+        return lo-base;
+    }
+
+    /**
+     * 寻找右边界: a[base,base+len)中第一个 > key 的偏移
+     */
+    private static int gallopRight(int key, int[] a, int base, int len){
+        assert len > 0;
+
+        int lo = base, hi = base+len-1;
+        if(key >= a[hi])return len;
+        while(lo<hi){
+            int m = lo + ((hi-lo)>>>1);
+            if(key < a[m])hi=m;
+            else lo=m+1;
+        }
+        return lo-base;
+    }
+
+    /**
+     * 复制run1到tmp, 从左向右合并
+     */
+    private void mergeLo(int base1, int len1, int base2, int len2) {
+        assert len1 > 0 && len2 > 0 && base1 + len1 == base2;
+        int[] a = this.a;
+        int[] tmp = ensureCapacity(len1);
+        int cursor1 = tmpBase;
+        int cursor2 = base2;
+        int dest = base1;
+        System.arraycopy(a, base1, tmp, cursor1, len1);
+
+        a[dest++] = a[cursor2++];
+        if(--len2==0){
+            System.arraycopy(tmp,cursor1,a,dest,len1);
+            return;
+        }
+        if(len1==1){
+            System.arraycopy(a,cursor2,a,dest,len2);
+            a[dest+len2] = tmp[cursor1];
+            return;
+        }
+
+        int minGallop = this.minGallop;
+        outer:
+            while(true){
+                int count1 = 0;
+                int count2 = 0;
+
+                do{
+                    assert len1 > 1 && len2 > 0;
+                    if(tmp[cursor1] <= a[cursor2]){
+                        a[dest++] = tmp[cursor1++];
+                        count1++;
+                        count2=0;
+                        if(--len1==1)break outer;
+                    }else{
+                        a[dest++] = a[cursor2++];
+                        count2++;
+                        count1=0;
+                        if(--len2==0)break outer;
+                    }
+                }while((count1|count2) < minGallop);
+
+                do{
+                    assert len1 > 1 && len2 > 0;
+                    count1 = gallopRight(a[cursor2],tmp,cursor1,len1);
+                    if(count1 !=0){
+                        System.arraycopy(tmp,cursor1,a,dest,count1);
+                        cursor1+=count1;
+                        dest+=count1;
+                        len1-=count1;
+                        if(len1<=1)break outer;
+                    }
+                    a[dest++] = a[cursor2++];
+                    if(--len2==0)break outer;
+
+                    count2 = gallopLeft(tmp[cursor1],a,cursor2,len2);
+                    if(count2!=0){
+                        System.arraycopy(a,cursor2,a,dest,count2);
+                        cursor2+=count2;
+                        dest+=count2;
+                        len2-=count2;
+                        if(len2==0)break outer;
+                    }
+
+                    a[dest++] = tmp[cursor1++];
+                    if(--len1==1)break outer;
+                    minGallop--;
+                }while(count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+
+                if(minGallop < 0) minGallop = 0;
+                minGallop += 2;
+            }
+        this.minGallop = minGallop < 1 ? 1 : minGallop;
+
+        if(len1 == 1){
+            assert len2 > 0;
+            System.arraycopy(a, cursor2, a, dest, len2);
+            a[dest + len2] = tmp[cursor1];
+        }else{
+            //基本类型的比较满足全序关系，不会出现len1 == 0
+            assert len2 == 0 && len1 > 1;
+            System.arraycopy(tmp, cursor1, a, dest, len1);
+        }
+    }
+
+    /**
+     * 复制run2到tmp, 从右向左合并
+     */
+    private void mergeHi(int base1, int len1, int base2, int len2) {
+        assert len1 > 0 && len2 > 0 && base1 + len1 == base2;
+
+        int[] a = this.a;
+        int[] tmp = ensureCapacity(len2);
+        int tmpBase = this.tmpBase;
+
+        int cursor1 = base1 + len1 - 1;
+        int cursor2 = tmpBase + len2 - 1;
+        int dest = base2 + len2 - 1;
+        System.arraycopy(a, base2, tmp, tmpBase, len2);
+
+        a[dest--] = a[cursor1--];
+        if(--len1 == 0){
+            System.arraycopy(tmp, tmpBase, a, dest - (len2 - 1), len2);
+            return;
+        }
+        if(len2 == 1){
+            dest -= len1;
+            cursor1 -= len1;
+            System.arraycopy(a, cursor1 + 1, a, dest + 1, len1);
+            a[dest] = tmp[cursor2];
+            return;
+        }
+
+        int minGallop = this.minGallop;
+        outer:
+            while(true){
+                int count1 = 0;
+                int count2 = 0;
+
+                do{
+                    assert len1 > 0 && len2 > 1;
+                    if(tmp[cursor2] < a[cursor1]){
+                        a[dest--] = a[cursor1--];
+                        count1++;
+                        count2=0;
+                        if(--len1==0)break outer;
+                    }else{
+                        a[dest--] = tmp[cursor2--];
+                        count2++;
+                        count1=0;
+                        if(--len2==1)break outer;
+                    }
+                }while((count1|count2)<minGallop);
+
+                do{
+                    assert len1 > 0 && len2 > 1;
+                    count1 = len1 - gallopRight(tmp[cursor2],a,base1,len1);
+                    if(count1!=0){
+                        len1 -= count1;
+                        cursor1 -= count1;
+                        dest -= count1;
+                        System.arraycopy(a,cursor1+1,a,dest+1,count1);
+                        if(len1==0)break outer;
+                    }
+                    a[dest--] = tmp[cursor2--];
+                    if(--len2==1)break outer;
+
+                    count2 = len2 - gallopLeft(a[cursor1],tmp,tmpBase,len2);
+                    if(count2!=0){
+                        dest -= count2;
+                        len2 -= count2;
+                        cursor2 -= count2;
+                        System.arraycopy(tmp,cursor2+1,a,dest+1,count2);
+                        if(len2<=1)break outer;
+                    }
+                    a[dest--] = a[cursor1--];
+                    if(--len1==0)break outer;
+
+                    minGallop--;
+                }while(count1>=MIN_GALLOP | count2>=MIN_GALLOP);
+
+                if(minGallop<0)minGallop = 0;
+                minGallop+=2;
+            }
+        this.minGallop = minGallop < 1 ? 1 : minGallop;
+
+        if(len2 == 1){
+            assert len1 > 0;
+            dest -= len1;
+            cursor1 -= len1;
+            System.arraycopy(a, cursor1 + 1, a, dest + 1, len1);
+            a[dest] = tmp[cursor2];
+        }else{
+            assert len1 == 0 && len2 > 0;
+            System.arraycopy(tmp, tmpBase, a, dest - (len2 - 1), len2);
+        }
+    }
+
+    private int[] ensureCapacity(int minCapacity) {
+        if(tmpLen < minCapacity){
+            int newSize = -1 >>> Integer.numberOfLeadingZeros(minCapacity);
+            newSize++;
+
+            if(newSize < 0)
+                newSize = minCapacity;
+            else
+                newSize = Math.min(newSize, a.length >>> 1);
+
+            tmp = new int[newSize];
+            tmpLen = newSize;
+            tmpBase = 0;
+        }
+        return tmp;
+    }
+}
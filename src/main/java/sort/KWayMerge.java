@@ -0,0 +1,540 @@
+package sort;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * @className: KWayMerge
+ * @description: 多路归并, 使用败者树一次合并k个有序序列
+ *
+ *              MergeSort.merge 和 MyTimSort.mergeLo/mergeHi 每次只合并两个run,
+ *              两两合并k个序列需要log(k)趟, 每个元素被读写log(k)次; 多路归并每个元素只读写一次。
+ *
+ *              败者树:
+ *                  1. k个序列的当前元素作为k个叶子, tree[1...k-1]为内部结点, 保存该结点比赛中的败者,
+ *                     tree[0]保存最终的胜者(最小的元素所在的序列);
+ *                  2. 输出胜者后, 该序列的下一个元素从它的叶子出发, 沿路径与每个结点保存的败者比较,
+ *                     只需要log(k)次比较就能得到新的胜者(堆需要 2*log(k) 次);
+ *                  3. 建树时所有结点先保存一个虚拟的最小值k, 再依次调整每个叶子;
+ *                  4. 耗尽的序列看作最大值, 胜者所在序列耗尽时合并结束。
+ *
+ *              元素相等时下标较小的序列在前, 所以合并是稳定的。
+ *              float/double 按照Double.compare的约定比较: NaN排在最后, -0.0排在0.0之前。
+ *
+ *              算法复杂度分析：
+ *                  时间复杂度：O(n*log(k)), n为所有序列的长度之和
+ *                  空间复杂度：O(k)
+ *
+ * @author: agent
+ * @date: 2026/10/17
+ */
+public final class KWayMerge {
+
+    private KWayMerge(){
+    }
+
+//-------------------------------------Comparator----------------------------------------------
+
+    /**
+     * 使用比较器合并多个有序数组到dst[0...total), total为所有数组的长度之和
+     * @param runs 有序数组
+     * @param dst 合并的结果, 长度不小于total
+     * @param c 比较器
+     * @param <T> 类型
+     */
+    public static <T> void merge(T[][] runs, T[] dst, Comparator<? super T> c){
+        int total = totalLength(runs);
+        if(dst.length < total) throw new IllegalArgumentException("dst length must be >= " + total + ": " + dst.length);
+        if(SortCounter.ENABLED) c = SortCounter.counting(c);
+        Iterator<T> it = new IteratorLoserTree<>(iterators(runs), c);
+        for(int i=0;i<total;i++) dst[i] = it.next();
+        BaseSort.countMoves(total);
+    }
+
+    /**
+     * 使用比较器合并多个有序的迭代器, 返回的迭代器按需读取各个序列,
+     * 适合合并文件、网络等无法一次装入内存的有序序列
+     * @param sources 有序序列
+     * @param c 比较器
+     * @param <T> 类型
+     * @return 合并后的序列
+     */
+    public static <T> Iterator<T> merge(List<? extends Iterator<? extends T>> sources, Comparator<? super T> c){
+        if(SortCounter.ENABLED) c = SortCounter.counting(c);
+        return new IteratorLoserTree<>(sources.toArray(new Iterator<?>[0]), c);
+    }
+
+    private static <T> Iterator<?>[] iterators(T[][] runs){
+        Iterator<?>[] its = new Iterator<?>[runs.length];
+        for(int i=0;i<runs.length;i++) its[i] = Arrays.asList(runs[i]).iterator();
+        return its;
+    }
+
+    /**
+     * 迭代器版本的败者树, heads[s]为第s个序列的当前元素
+     */
+    private static final class IteratorLoserTree<T> implements Iterator<T> {
+        private final Iterator<? extends T>[] sources;
+        private final Comparator<? super T> c;
+        private final Object[] heads;
+        private final boolean[] exhausted;
+        private final int[] tree;
+        private final int k;
+
+        @SuppressWarnings("unchecked")
+        IteratorLoserTree(Iterator<?>[] sources, Comparator<? super T> c){
+            this.sources = (Iterator<? extends T>[]) sources;
+            this.c = c;
+            this.k = sources.length;
+            this.heads = new Object[k];
+            this.exhausted = new boolean[k];
+            this.tree = new int[Math.max(k, 1)];
+            for(int s=0;s<k;s++) advance(s);
+            Arrays.fill(tree, k);
+            for(int s=k-1;s>=0;s--) adjust(s);
+        }
+
+        private void advance(int s){
+            if(sources[s].hasNext()) heads[s] = sources[s].next();
+            else{
+                heads[s] = null;
+                exhausted[s] = true;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private boolean before(int s, int t){
+            if(s == k) return true;
+            if(t == k) return false;
+            if(exhausted[s]) return false;
+            if(exhausted[t]) return true;
+            int cmp = c.compare((T) heads[s], (T) heads[t]);
+            return cmp < 0 || (cmp == 0 && s < t);
+        }
+
+        private void adjust(int s){
+            for(int t=(s+k)>>1;t>0;t>>=1){
+                if(before(tree[t], s)){
+                    int loser = tree[t];
+                    tree[t] = s;
+                    s = loser;
+                }
+            }
+            tree[0] = s;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return k > 0 && !exhausted[tree[0]];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if(!hasNext()) throw new NoSuchElementException();
+            int s = tree[0];
+            T x = (T) heads[s];
+            advance(s);
+            adjust(s);
+            return x;
+        }
+    }
+
+//---------------------------------基本类型 int/long/float/double 实现---------------------------------
+
+    /*
+     * 基本类型版本直接读取数组, heads[s]缓存第s个序列的当前元素, 比较不需要装箱, 也不需要两次下标访问。
+     * long另有迭代器版本, 用于合并外部排序的run文件。
+     */
+
+    /**
+     * 合并多个有序的int数组
+     * @param runs 有序数组
+     * @return 合并后的新数组
+     */
+    public static int[] merge(int[]... runs){
+        int[] dst = new int[totalLength(runs)];
+        merge(runs, dst);
+        return dst;
+    }
+
+    /**
+     * 合并多个有序的int数组到dst[0...total), total为所有数组的长度之和
+     * @param runs 有序数组
+     * @param dst 合并的结果, 长度不小于total
+     */
+    public static void merge(int[][] runs, int[] dst){
+        int total = totalLength(runs);
+        if(dst.length < total) throw new IllegalArgumentException("dst length must be >= " + total + ": " + dst.length);
+        new IntLoserTree(runs).mergeTo(dst, total);
+    }
+
+    private static final class IntLoserTree {
+        private final int[][] runs;
+        private final int[] pos;
+        private final int[] heads;
+        private final boolean[] exhausted;
+        private final int[] tree;
+        private final int k;
+
+        IntLoserTree(int[][] runs){
+            this.runs = runs;
+            this.k = runs.length;
+            this.pos = new int[k];
+            this.heads = new int[k];
+            this.exhausted = new boolean[k];
+            this.tree = new int[Math.max(k, 1)];
+            for(int s=0;s<k;s++){
+                if(runs[s].length > 0) heads[s] = runs[s][0];
+                else exhausted[s] = true;
+            }
+            Arrays.fill(tree, k);
+            for(int s=k-1;s>=0;s--) adjust(s);
+        }
+
+        private boolean before(int s, int t){
+            if(s == k) return true;
+            if(t == k) return false;
+            if(exhausted[s]) return false;
+            if(exhausted[t]) return true;
+            int x = heads[s], y = heads[t];
+            return x < y || (x == y && s < t);
+        }
+
+        private void adjust(int s){
+            for(int t=(s+k)>>1;t>0;t>>=1){
+                if(before(tree[t], s)){
+                    int loser = tree[t];
+                    tree[t] = s;
+                    s = loser;
+                }
+            }
+            tree[0] = s;
+        }
+
+        void mergeTo(int[] dst, int total){
+            for(int i=0;i<total;i++){
+                int s = tree[0];
+                dst[i] = heads[s];
+                if(++pos[s] < runs[s].length) heads[s] = runs[s][pos[s]];
+                else exhausted[s] = true;
+                adjust(s);
+            }
+        }
+    }
+
+    /**
+     * 合并多个有序的long数组
+     * @param runs 有序数组
+     * @return 合并后的新数组
+     */
+    public static long[] merge(long[]... runs){
+        long[] dst = new long[totalLength(runs)];
+        merge(runs, dst);
+        return dst;
+    }
+
+    /**
+     * 合并多个有序的long数组到dst[0...total), total为所有数组的长度之和
+     * @param runs 有序数组
+     * @param dst 合并的结果, 长度不小于total
+     */
+    public static void merge(long[][] runs, long[] dst){
+        int total = totalLength(runs);
+        if(dst.length < total) throw new IllegalArgumentException("dst length must be >= " + total + ": " + dst.length);
+        new LongLoserTree(runs).mergeTo(dst, total);
+    }
+
+    /**
+     * 合并多个有序的long迭代器, 返回的迭代器按需读取各个序列, 比较和输出都不装箱
+     * 适合合并文件等无法一次装入内存的有序序列, 见ExternalSort.sortLongs
+     * @param sources 有序序列
+     * @return 合并后的序列
+     */
+    public static PrimitiveIterator.OfLong merge(List<? extends PrimitiveIterator.OfLong> sources){
+        return new LongIteratorLoserTree(sources.toArray(new PrimitiveIterator.OfLong[0]));
+    }
+
+    private static final class LongLoserTree {
+        private final long[][] runs;
+        private final int[] pos;
+        private final long[] heads;
+        private final boolean[] exhausted;
+        private final int[] tree;
+        private final int k;
+
+        LongLoserTree(long[][] runs){
+            this.runs = runs;
+            this.k = runs.length;
+            this.pos = new int[k];
+            this.heads = new long[k];
+            this.exhausted = new boolean[k];
+            this.tree = new int[Math.max(k, 1)];
+            for(int s=0;s<k;s++){
+                if(runs[s].length > 0) heads[s] = runs[s][0];
+                else exhausted[s] = true;
+            }
+            Arrays.fill(tree, k);
+            for(int s=k-1;s>=0;s--) adjust(s);
+        }
+
+        private boolean before(int s, int t){
+            if(s == k) return true;
+            if(t == k) return false;
+            if(exhausted[s]) return false;
+            if(exhausted[t]) return true;
+            long x = heads[s], y = heads[t];
+            return x < y || (x == y && s < t);
+        }
+
+        private void adjust(int s){
+            for(int t=(s+k)>>1;t>0;t>>=1){
+                if(before(tree[t], s)){
+                    int loser = tree[t];
+                    tree[t] = s;
+                    s = loser;
+                }
+            }
+            tree[0] = s;
+        }
+
+        void mergeTo(long[] dst, int total){
+            for(int i=0;i<total;i++){
+                int s = tree[0];
+                dst[i] = heads[s];
+                if(++pos[s] < runs[s].length) heads[s] = runs[s][pos[s]];
+                else exhausted[s] = true;
+                adjust(s);
+            }
+        }
+    }
+
+    /**
+     * long迭代器版本的败者树, heads[s]为第s个序列的当前元素
+     */
+    private static final class LongIteratorLoserTree implements PrimitiveIterator.OfLong {
+        private final PrimitiveIterator.OfLong[] sources;
+        private final long[] heads;
+        private final boolean[] exhausted;
+        private final int[] tree;
+        private final int k;
+
+        LongIteratorLoserTree(PrimitiveIterator.OfLong[] sources){
+            this.sources = sources;
+            this.k = sources.length;
+            this.heads = new long[k];
+            this.exhausted = new boolean[k];
+            this.tree = new int[Math.max(k, 1)];
+            for(int s=0;s<k;s++) advance(s);
+            Arrays.fill(tree, k);
+            for(int s=k-1;s>=0;s--) adjust(s);
+        }
+
+        private void advance(int s){
+            if(sources[s].hasNext()) heads[s] = sources[s].nextLong();
+            else exhausted[s] = true;
+        }
+
+        private boolean before(int s, int t){
+            if(s == k) return true;
+            if(t == k) return false;
+            if(exhausted[s]) return false;
+            if(exhausted[t]) return true;
+            long x = heads[s], y = heads[t];
+            return x < y || (x == y && s < t);
+        }
+
+        private void adjust(int s){
+            for(int t=(s+k)>>1;t>0;t>>=1){
+                if(before(tree[t], s)){
+                    int loser = tree[t];
+                    tree[t] = s;
+                    s = loser;
+                }
+            }
+            tree[0] = s;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return k > 0 && !exhausted[tree[0]];
+        }
+
+        @Override
+        public long nextLong() {
+            if(!hasNext()) throw new NoSuchElementException();
+            int s = tree[0];
+            long x = heads[s];
+            advance(s);
+            adjust(s);
+            return x;
+        }
+    }
+
+    /**
+     * 合并多个有序的float数组
+     * @param runs 有序数组
+     * @return 合并后的新数组
+     */
+    public static float[] merge(float[]... runs){
+        float[] dst = new float[totalLength(runs)];
+        merge(runs, dst);
+        return dst;
+    }
+
+    /**
+     * 合并多个有序的float数组到dst[0...total), total为所有数组的长度之和
+     * @param runs 有序数组
+     * @param dst 合并的结果, 长度不小于total
+     */
+    public static void merge(float[][] runs, float[] dst){
+        int total = totalLength(runs);
+        if(dst.length < total) throw new IllegalArgumentException("dst length must be >= " + total + ": " + dst.length);
+        new FloatLoserTree(runs).mergeTo(dst, total);
+    }
+
+    private static final class FloatLoserTree {
+        private final float[][] runs;
+        private final int[] pos;
+        private final float[] heads;
+        private final boolean[] exhausted;
+        private final int[] tree;
+        private final int k;
+
+        FloatLoserTree(float[][] runs){
+            this.runs = runs;
+            this.k = runs.length;
+            this.pos = new int[k];
+            this.heads = new float[k];
+            this.exhausted = new boolean[k];
+            this.tree = new int[Math.max(k, 1)];
+            for(int s=0;s<k;s++){
+                if(runs[s].length > 0) heads[s] = runs[s][0];
+                else exhausted[s] = true;
+            }
+            Arrays.fill(tree, k);
+            for(int s=k-1;s>=0;s--) adjust(s);
+        }
+
+        private boolean before(int s, int t){
+            if(s == k) return true;
+            if(t == k) return false;
+            if(exhausted[s]) return false;
+            if(exhausted[t]) return true;
+            float x = heads[s], y = heads[t];
+            return Float.compare(x, y) < 0 || (Float.compare(x, y) == 0 && s < t);
+        }
+
+        private void adjust(int s){
+            for(int t=(s+k)>>1;t>0;t>>=1){
+                if(before(tree[t], s)){
+                    int loser = tree[t];
+                    tree[t] = s;
+                    s = loser;
+                }
+            }
+            tree[0] = s;
+        }
+
+        void mergeTo(float[] dst, int total){
+            for(int i=0;i<total;i++){
+                int s = tree[0];
+                dst[i] = heads[s];
+                if(++pos[s] < runs[s].length) heads[s] = runs[s][pos[s]];
+                else exhausted[s] = true;
+                adjust(s);
+            }
+        }
+    }
+
+    /**
+     * 合并多个有序的double数组
+     * @param runs 有序数组
+     * @return 合并后的新数组
+     */
+    public static double[] merge(double[]... runs){
+        double[] dst = new double[totalLength(runs)];
+        merge(runs, dst);
+        return dst;
+    }
+
+    /**
+     * 合并多个有序的double数组到dst[0...total), total为所有数组的长度之和
+     * @param runs 有序数组
+     * @param dst 合并的结果, 长度不小于total
+     */
+    public static void merge(double[][] runs, double[] dst){
+        int total = totalLength(runs);
+        if(dst.length < total) throw new IllegalArgumentException("dst length must be >= " + total + ": " + dst.length);
+        new DoubleLoserTree(runs).mergeTo(dst, total);
+    }
+
+    private static final class DoubleLoserTree {
+        private final double[][] runs;
+        private final int[] pos;
+        private final double[] heads;
+        private final boolean[] exhausted;
+        private final int[] tree;
+        private final int k;
+
+        DoubleLoserTree(double[][] runs){
+            this.runs = runs;
+            this.k = runs.length;
+            this.pos = new int[k];
+            this.heads = new double[k];
+            this.exhausted = new boolean[k];
+            this.tree = new int[Math.max(k, 1)];
+            for(int s=0;s<k;s++){
+                if(runs[s].length > 0) heads[s] = runs[s][0];
+                else exhausted[s] = true;
+            }
+            Arrays.fill(tree, k);
+            for(int s=k-1;s>=0;s--) adjust(s);
+        }
+
+        private boolean before(int s, int t){
+            if(s == k) return true;
+            if(t == k) return false;
+            if(exhausted[s]) return false;
+            if(exhausted[t]) return true;
+            double x = heads[s], y = heads[t];
+            return Double.compare(x, y) < 0 || (Double.compare(x, y) == 0 && s < t);
+        }
+
+        private void adjust(int s){
+            for(int t=(s+k)>>1;t>0;t>>=1){
+                if(before(tree[t], s)){
+                    int loser = tree[t];
+                    tree[t] = s;
+                    s = loser;
+                }
+            }
+            tree[0] = s;
+        }
+
+        void mergeTo(double[] dst, int total){
+            for(int i=0;i<total;i++){
+                int s = tree[0];
+                dst[i] = heads[s];
+                if(++pos[s] < runs[s].length) heads[s] = runs[s][pos[s]];
+                else exhausted[s] = true;
+                adjust(s);
+            }
+        }
+    }
+
+    /**
+     * 所有数组的长度之和
+     */
+    private static int totalLength(Object[] runs){
+        long total = 0;
+        for(Object run : runs) total += Array.getLength(run);
+        if(total > Integer.MAX_VALUE) throw new IllegalArgumentException("total length exceeds Integer.MAX_VALUE: " + total);
+        return (int) total;
+    }
+}
@@ -4,6 +4,7 @@ import util.RandomArrayUtil;
 import util.StopWatch;
 
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * @className: MergeSort
@@ -35,11 +36,18 @@ import java.util.Arrays;
  */
 public class MergeSort extends BaseSort implements SortedCompared{
 
-    private static Comparable[] tmp;
-
     //阀值 如果待排数组元素 <= 7，则使用适合小数据的插入排序
     private static final int THRESHOLD = 7;
 
+    //bottomUpSort中run的最小长度, 较短的run用插入排序扩展到该长度
+    private static final int MIN_RUN = 32;
+
+    //每个线程缓存一个辅助数组, 长度不超过MAX_CACHED_BUFFER, 见acquireBuffer()
+    private static final ThreadLocal<Object[]> BUFFERS = new ThreadLocal<>();
+
+    //缓存的辅助数组的最大长度, 更大的排序每次单独分配, 线程池中每个线程最多保留这么多引用
+    private static final int MAX_CACHED_BUFFER = 1 << 16;
+
 //---------------------------------归并排序 递归实现------------------------------------------------
 
     /**
@@ -49,26 +57,45 @@ public class MergeSort extends BaseSort implements SortedCompared{
      */
     public static <K extends Comparable<K>> void mergeSortByRecursive(K[] a){
         if(a == null) return ;
-        int length = a.length;
-        if(length == 0)return;
-
-        tmp = new Comparable[length];
-        mergeSortByRecursive(a,0,length-1);
+        mergeSortByRecursive(a,0,a.length-1);
     }
 
     /**
-     * 归并排序区间在[l,r] 递归实现 自顶向下
+     * 归并排序区间在[l,r] 递归实现 自顶向下, 辅助数组取自当前线程的缓存
      * @param a
      * @param l
      * @param r
      * @param <K>
      */
     public static <K extends Comparable<K>> void mergeSortByRecursive(K[] a,int l,int r){
+        if(r <= l)return;
+        Object[] aux = acquireBuffer(r+1);
+        try{
+            mergeSortByRecursive(a,aux,l,r);
+        }finally{
+            releaseBuffer(aux,l,r);
+        }
+    }
+
+    /**
+     * 归并排序 递归实现 自顶向下, 使用调用方传入的辅助数组
+     * 不同线程各自传入辅助数组时可以同时排序
+     * @param a 待排数组
+     * @param aux 辅助数组, 长度不小于a.length
+     * @param <K>
+     */
+    public static <K extends Comparable<K>> void mergeSortByRecursive(K[] a,Comparable<?>[] aux){
+        if(a == null) return ;
+        checkBuffer(aux,a.length);
+        mergeSortByRecursive(a,aux,0,a.length-1);
+    }
+
+    private static <K extends Comparable<K>> void mergeSortByRecursive(K[] a,Object[] aux,int l,int r){
         if(r <= l)return;
         int mid = l + ((r - l) >> 1);
-        mergeSortByRecursive(a,l,mid);
-        mergeSortByRecursive(a,mid+1,r);
-        merge(a,l,mid,r);
+        mergeSortByRecursive(a,aux,l,mid);
+        mergeSortByRecursive(a,aux,mid+1,r);
+        merge(a,l,mid,r,aux);
     }
 
 //-------------------------------归并排序 通过迭代循环实现-------------------------------------
@@ -81,15 +108,34 @@ public class MergeSort extends BaseSort implements SortedCompared{
     public static <K extends Comparable<K>> void mergeSortByIterate(K[] a){
         if(a == null) return ;
         int length = a.length;
-        if(length == 0)return;
+        if(length < 2)return;
 
-        tmp = new Comparable[a.length];
+        Object[] aux = acquireBuffer(length);
+        try{
+            mergeSortByIterate(a,aux,length);
+        }finally{
+            releaseBuffer(aux,0,length-1);
+        }
+    }
+
+    /**
+     * 归并排序 通过迭代循环实现 自底向上, 使用调用方传入的辅助数组
+     * @param a 待排数组
+     * @param aux 辅助数组, 长度不小于a.length
+     * @param <K>
+     */
+    public static <K extends Comparable<K>> void mergeSortByIterate(K[] a,Comparable<?>[] aux){
+        if(a == null) return ;
+        checkBuffer(aux,a.length);
+        mergeSortByIterate(a,aux,a.length);
+    }
 
+    private static <K extends Comparable<K>> void mergeSortByIterate(K[] a,Object[] aux,int length){
         for(int sz = 2;sz<length*2; sz*=2){ //size 为2,4,8, ... 序列
             for(int i=0; i < length ; i+=sz){
                 //防止右边界溢出
                 int r = i+sz-1 < length ? i+sz-1:length-1;
-                merge(a,i,i+sz/2-1,r);
+                merge(a,i,i+sz/2-1,r,aux);
             }
         }
     }
@@ -97,7 +143,7 @@ public class MergeSort extends BaseSort implements SortedCompared{
 //--------------------------------------归并数组------------------------------------------------
 
     /**
-     * 归并数组，区间在[l,r]
+     * 归并数组，区间在[l,r], 辅助数组取自当前线程的缓存
      * @param a
      * @param l
      * @param mid
@@ -108,6 +154,27 @@ public class MergeSort extends BaseSort implements SortedCompared{
         //只有一个元素，return
         if(r-l<=0) return;
 
+        Object[] aux = acquireBuffer(r+1);
+        try{
+            merge(a,l,mid,r,aux);
+        }finally{
+            releaseBuffer(aux,l,r);
+        }
+    }
+
+    /**
+     * 归并数组，区间在[l,r]
+     * @param a
+     * @param l
+     * @param mid
+     * @param r
+     * @param tmp 辅助数组, 使用区间[l,r]
+     * @param <K>
+     */
+    public static <K extends Comparable<K>> void merge(K[] a, int l, int mid, int r, Object[] tmp){
+        //只有一个元素，return
+        if(r-l<=0) return;
+
         int i = l, j = mid+1;
 
         for(int k = l; k<=r;k++){
@@ -122,6 +189,59 @@ public class MergeSort extends BaseSort implements SortedCompared{
 
         //复制元素
         System.arraycopy(tmp,l,a,l,r-l+1);
+        //写入tmp一次, 复制回a一次
+        countMoves(2*(r-l+1));
+    }
+
+//--------------------------------------辅助数组------------------------------------------------
+
+    /*
+     * 辅助数组不再保存在静态字段中, 多个线程可以同时排序:
+     *      1. 调用方显式传入辅助数组, 例如每个请求处理线程各自持有一个;
+     *      2. 不传入时使用当前线程缓存的辅助数组(ThreadLocal), 长度不够时重新分配,
+     *         只缓存长度不超过MAX_CACHED_BUFFER的数组, 重复的小排序不需要每次分配;
+     *         更大的排序每次单独分配, 排序结束后交给GC, 线程池中的线程不会一直持有大数组。
+     *
+     * 取出时把缓存置空, 排序结束后再放回, 所以同一个线程嵌套调用(例如compareTo中再次排序)时
+     * 内层会分配新的数组, 不会与外层共用。
+     * 放回前清空使用过的区间, 缓存不会持有已排序元素的引用; 放回在finally中, compareTo抛出异常时也会执行。
+     *
+     * 分配的数组运行时类型为Comparable[], advancedSort / bottomUpSort 可以把它转换为K[]使用。
+     */
+
+    /**
+     * 取出当前线程缓存的辅助数组, 长度不小于length
+     */
+    private static Object[] acquireBuffer(int length){
+        Object[] buffer = length <= MAX_CACHED_BUFFER ? BUFFERS.get() : null;
+        if(buffer == null || buffer.length < length){
+            buffer = new Comparable<?>[length];
+            countAllocation(length);
+        }
+        else BUFFERS.set(null);
+        return buffer;
+    }
+
+    /**
+     * 清空使用过的区间[l,r], 放回当前线程的缓存, 只保留较长的数组; 超过MAX_CACHED_BUFFER的数组不缓存
+     */
+    private static void releaseBuffer(Object[] buffer, int l, int r){
+        if(buffer.length > MAX_CACHED_BUFFER) return;
+        Arrays.fill(buffer,l,r+1,null);
+        Object[] cached = BUFFERS.get();
+        if(cached == null || cached.length < buffer.length) BUFFERS.set(buffer);
+    }
+
+    /**
+     * 释放当前线程缓存的辅助数组, 例如线程不再排序时
+     */
+    public static void clearBuffer(){
+        BUFFERS.remove();
+    }
+
+    private static void checkBuffer(Object[] aux, int length){
+        if(aux == null || aux.length < length)
+            throw new IllegalArgumentException("aux length must be >= " + length + ": " + (aux == null ? "null" : aux.length));
     }
 
 
@@ -129,14 +249,22 @@ public class MergeSort extends BaseSort implements SortedCompared{
 
     /**
      * 综合优化 插入+归并
+     * 入口先调用BaseSort.presort()预扫描, 已有序或严格递减时不需要辅助数组
      * @param a 待排数组
      * @param <K> 类型
      */
     public static <K extends Comparable<K>> void advancedSort(K[] a){
+        if(a == null || presort(a,0,a.length-1) != PRESORT_NONE) return;
 
-        K[] cur = (K[]) new Comparable[a.length];
-        System.arraycopy(a,0,cur,0,a.length);
-        advancedSort(cur,a,0,a.length-1);
+        //辅助数组取自当前线程的缓存, 长度可能大于a.length, 只使用区间[0,a.length)
+        K[] cur = (K[]) acquireBuffer(a.length);
+        try{
+            System.arraycopy(a,0,cur,0,a.length);
+            countMoves(a.length);
+            advancedSort(cur,a,0,a.length-1);
+        }finally{
+            releaseBuffer(cur,0,a.length-1);
+        }
     }
 
     /**
@@ -167,6 +295,7 @@ public class MergeSort extends BaseSort implements SortedCompared{
         //2. 如果已经有序，则跳过合并
         if(!less(src[mid+1],src[mid])){
             System.arraycopy(src,l,dst,l,r-l+1);
+            countMoves(r-l+1);
             return;
         }
 
@@ -191,9 +320,11 @@ public class MergeSort extends BaseSort implements SortedCompared{
         for(int k=l;k<=r;k++){
             if(j>r) dst[k]=src[i++];
             else if(i>mid) dst[k]=src[j++];
-            else if(less(src[i],src[j])) dst[k] = src[i++];
-            else dst[k] = src[j++];
+            //相等时取左边的元素，保证稳定
+            else if(less(src[j],src[i])) dst[k] = src[j++];
+            else dst[k] = src[i++];
         }
+        countMoves(r-l+1);
     }
 
     /**
@@ -213,7 +344,723 @@ public class MergeSort extends BaseSort implements SortedCompared{
                 else break;
             }
             a[j] = tmp;
+            countMoves(i-j+1);
+        }
+    }
+//-------------------------------自底向上 自然归并-------------------------------------
+
+    /*
+     * 自底向上的归并排序, 没有递归:
+     *      1. 从左到右扫描自然的升序run(a[k-1] <= a[k]), 严格递减的run原地反转(没有相等元素, 不影响稳定性),
+     *         run短于MIN_RUN时用插入排序把它扩展到MIN_RUN个元素, 记录每个run的起点;
+     *      2. 每一趟把相邻的两个run从src合并到dst, 下一趟交换src和dst,
+     *         每个元素每趟只移动一次, 不需要像mergeSortByIterate那样先写入tmp再复制回来;
+     *      3. 如果左边run的最后一个元素 <= 右边run的第一个元素, 两个run已经有序, 直接复制, 跳过合并;
+     *      4. 只剩一个run时结束, 结果在辅助数组中时复制回原数组。
+     *
+     *      已有序或严格递减的数组只有一个run, 扫描一遍即可返回; 基本有序的数组run很长, 合并的趟数很少。
+     */
+
+    /**
+     * 自底向上 自然归并, 辅助数组取自当前线程的缓存
+     * @param a 待排数组
+     * @param <K> 类型
+     */
+    public static <K extends Comparable<K>> void bottomUpSort(K[] a){
+        if(a == null || a.length < 2) return;
+        Object[] aux = acquireBuffer(a.length);
+        try{
+            bottomUpSort(a,(K[]) aux,a.length);
+        }finally{
+            releaseBuffer(aux,0,a.length-1);
+        }
+    }
+
+    /**
+     * 自底向上 自然归并, 使用调用方传入的辅助数组
+     * @param a 待排数组
+     * @param aux 辅助数组, 长度不小于a.length
+     * @param <K> 类型
+     */
+    public static <K extends Comparable<K>> void bottomUpSort(K[] a,Comparable<?>[] aux){
+        if(a == null) return;
+        checkBuffer(aux,a.length);
+        if(a.length > 1) bottomUpSort(a,(K[]) aux,a.length);
+    }
+
+    /**
+     * 自底向上 自然归并 排序区间[0,n)
+     */
+    private static <K extends Comparable<K>> void bottomUpSort(K[] a,K[] aux,int n){
+        //第i个run为[runs[i], runs[i+1]), 除最后一个run外长度都不小于MIN_RUN
+        int[] runs = new int[n / MIN_RUN + 2];
+        countAllocation(runs.length);
+        int count = 0;
+        for(int lo = 0; lo < n; ){
+            runs[count++] = lo;
+            int hi = lo+1;
+            if(hi < n){
+                if(less(a[hi],a[lo])){
+                    while(++hi < n && less(a[hi],a[hi-1]));
+                    for(int i=lo,j=hi-1;i<j;i++,j--) swap(a,i,j);
+                }
+                else while(++hi < n && !less(a[hi],a[hi-1]));
+            }
+            if(hi - lo < MIN_RUN){
+                hi = Math.min(lo + MIN_RUN, n);
+                insertSort(a,lo,hi-1);
+            }
+            lo = hi;
+        }
+        runs[count] = n;
+
+        K[] src = a, dst = aux;
+        while(count > 1){
+            int merged = 0;
+            for(int i=0;i<count;i+=2){
+                int l = runs[i];
+                runs[merged++] = l;
+                //最后一个run没有可以合并的run, 直接复制
+                if(i+1 == count){
+                    System.arraycopy(src,l,dst,l,n-l);
+                    countMoves(n-l);
+                    break;
+                }
+                int mid = runs[i+1]-1, r = runs[i+2]-1;
+                if(!less(src[mid+1],src[mid])){
+                    System.arraycopy(src,l,dst,l,r-l+1);
+                    countMoves(r-l+1);
+                }
+                else merge(src,dst,l,mid,r);
+            }
+            runs[merged] = n;
+            count = merged;
+            K[] t = src;
+            src = dst;
+            dst = t;
+        }
+        if(src != a){
+            System.arraycopy(src,0,a,0,n);
+            countMoves(n);
+        }
+    }
+
+//-----------------------------------并行归并排序 Fork/Join------------------------------------------
+
+    /*
+     * 并行归并排序:
+     *      1. 排序: 递归二分, 两个子区间作为两个任务并行排序, 区间长度 <= grain 时使用advancedSort串行排序
+     *         (advancedSort在 THRESHOLD 以下使用插入排序);
+     *      2. 归并: 两个有序区间的归并同样拆成子任务并行执行。
+     *         取较长区间的中点元素key, 二分查找key在另一个区间中的位置, 把归并拆成两个互不相关的小归并,
+     *         这样最上层的归并也不是串行的。
+     *
+     *      和advancedSort一样, 输入数组和辅助数组交替作为src和dst, 每层只复制一次。
+     *      拆分归并时保证相等元素中左区间的在前, 所以排序是稳定的。
+     */
+
+    //并行排序的最小子任务长度, 与Arrays.parallelSort一致
+    private static final int MIN_PARALLEL_GRAIN = 1 << 13;
+
+    /**
+     * 并行归并排序 入口方法, 使用ForkJoinPool.commonPool()
+     * 子任务长度为 max(n / (并行度*4), MIN_PARALLEL_GRAIN)
+     * @param a 待排数组
+     * @param <K> 类型
+     */
+    public static <K extends Comparable<K>> void parallelSort(K[] a){
+        if(a == null) return;
+        int p = ForkJoinPool.getCommonPoolParallelism();
+        parallelSort(a, Math.max(a.length / (p << 2), MIN_PARALLEL_GRAIN));
+    }
+
+    /**
+     * 并行归并排序
+     * @param a 待排数组
+     * @param grain 子任务长度, 区间长度 <= grain时串行排序
+     * @param <K> 类型
+     */
+    public static <K extends Comparable<K>> void parallelSort(K[] a, int grain){
+        if(a == null) return;
+        if(grain <= THRESHOLD) throw new IllegalArgumentException("grain must be > " + THRESHOLD + ": " + grain);
+        if(presort(a,0,a.length-1) != PRESORT_NONE) return;
+        int length = a.length;
+        if(length <= grain || ForkJoinPool.getCommonPoolParallelism() == 1){
+            advancedSort(a);
+            return;
+        }
+
+        K[] aux = (K[]) new Comparable<?>[length];
+        System.arraycopy(a,0,aux,0,length);
+        countAllocation(length);
+        countMoves(length);
+        new SortTask<>(aux,a,0,length-1,grain).invoke();
+    }
+
+    /**
+     * 排序任务: 排序区间[l,r], 结果写入dst, src与dst在区间内的元素相同, 作为辅助数组
+     */
+    private static final class SortTask<K extends Comparable<K>> extends CountedTask {
+        private static final long serialVersionUID = 1L;
+
+        private final K[] src;
+        private final K[] dst;
+        private final int l;
+        private final int r;
+        private final int grain;
+
+        SortTask(K[] src, K[] dst, int l, int r, int grain){
+            this.src = src;
+            this.dst = dst;
+            this.l = l;
+            this.r = r;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void doCompute() {
+            if(r - l < grain){
+                advancedSort(src,dst,l,r);
+                return;
+            }
+
+            int mid = l + ((r-l)>>1);
+            //子任务交换src和dst, 排序结果写入src
+            invokeAll(new SortTask<>(dst,src,l,mid,grain),
+                      new SortTask<>(dst,src,mid+1,r,grain));
+
+            //如果已经有序，则跳过合并
+            if(!less(src[mid+1],src[mid])){
+                System.arraycopy(src,l,dst,l,r-l+1);
+                countMoves(r-l+1);
+                return;
+            }
+
+            new MergeTask<>(src,dst,l,mid,mid+1,r,l,grain).doCompute();
+        }
+    }
+
+    /**
+     * 归并任务: 归并src[lo1,hi1]和src[lo2,hi2], 结果写入dst[dstLo, ...]
+     */
+    private static final class MergeTask<K extends Comparable<K>> extends CountedTask {
+        private static final long serialVersionUID = 1L;
+
+        private final K[] src;
+        private final K[] dst;
+        private final int lo1, hi1;
+        private final int lo2, hi2;
+        private final int dstLo;
+        private final int grain;
+
+        MergeTask(K[] src, K[] dst, int lo1, int hi1, int lo2, int hi2, int dstLo, int grain){
+            this.src = src;
+            this.dst = dst;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.dstLo = dstLo;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void doCompute() {
+            int len1 = hi1 - lo1 + 1;
+            int len2 = hi2 - lo2 + 1;
+            if(len1 + len2 <= grain || len1 == 0 || len2 == 0){
+                mergeStable(src,dst,lo1,hi1,lo2,hi2,dstLo);
+                return;
+            }
+
+            //split1, split2: 两个区间的拆分位置, 拆分位置之前的元素归并到前半部分
+            int split1, split2;
+            K key;
+            if(len1 >= len2){
+                //左区间的中点key, 右区间中 < key 的元素在key之前
+                split1 = lo1 + (len1 >> 1);
+                key = src[split1];
+                split2 = lowerBound(src,lo2,hi2,key);
+                //key本身放在两部分之间
+                dst[dstLo + (split1 - lo1) + (split2 - lo2)] = key;
+                countMoves(1);
+                invokeAll(new MergeTask<>(src,dst,lo1,split1-1,lo2,split2-1,dstLo,grain),
+                          new MergeTask<>(src,dst,split1+1,hi1,split2,hi2,
+                                  dstLo + (split1 - lo1) + (split2 - lo2) + 1,grain));
+            }else{
+                //右区间的中点key, 左区间中 <= key 的元素在key之前
+                split2 = lo2 + (len2 >> 1);
+                key = src[split2];
+                split1 = upperBound(src,lo1,hi1,key);
+                dst[dstLo + (split1 - lo1) + (split2 - lo2)] = key;
+                countMoves(1);
+                invokeAll(new MergeTask<>(src,dst,lo1,split1-1,lo2,split2-1,dstLo,grain),
+                          new MergeTask<>(src,dst,split1,hi1,split2+1,hi2,
+                                  dstLo + (split1 - lo1) + (split2 - lo2) + 1,grain));
+            }
+        }
+    }
+
+    /**
+     * 稳定归并 src[lo1,hi1]和src[lo2,hi2], 结果写入dst[dstLo, ...]
+     * 相等时取左区间的元素
+     */
+    private static <K extends Comparable<K>> void mergeStable(K[] src, K[] dst, int lo1, int hi1,
+                                                              int lo2, int hi2, int dstLo){
+        int i = lo1, j = lo2, k = dstLo;
+        while(i <= hi1 && j <= hi2){
+            dst[k++] = less(src[j],src[i]) ? src[j++] : src[i++];
+        }
+        if(i <= hi1) System.arraycopy(src,i,dst,k,hi1-i+1);
+        else if(j <= hi2) System.arraycopy(src,j,dst,k,hi2-j+1);
+        countMoves((hi1-lo1+1) + (hi2-lo2+1));
+    }
+
+    /**
+     * 在有序区间a[l,r]中查找第一个 >= key 的位置, 不存在时返回 r+1
+     */
+    private static <K extends Comparable<K>> int lowerBound(K[] a, int l, int r, K key){
+        r++;
+        while(l < r){
+            int m = (l + r) >>> 1;
+            if(less(a[m],key)) l = m + 1;
+            else r = m;
+        }
+        return l;
+    }
+
+    /**
+     * 在有序区间a[l,r]中查找第一个 > key 的位置, 不存在时返回 r+1
+     */
+    private static <K extends Comparable<K>> int upperBound(K[] a, int l, int r, K key){
+        r++;
+        while(l < r){
+            int m = (l + r) >>> 1;
+            if(less(key,a[m])) r = m;
+            else l = m + 1;
+        }
+        return l;
+    }
+
+//---------------------------------基本类型 int/long/float/double 实现---------------------------------
+
+    /*
+     * 基本类型版本的综合优化(对应advancedSort): 插入+归并, 已有序时跳过合并, 输入数组和辅助数组交替使用,
+     * 以及自底向上的自然归并(对应bottomUpSort)。
+     * 直接使用 < 比较, 不需要装箱, 也没有compareTo的虚调用。
+     * float/double 按照Double.compare的约定排序: NaN排在最后, -0.0排在0.0之前。
+     */
+
+    /**
+     * 综合优化 插入+归并 int版本
+     */
+    public static void advancedSort(int[] a){
+        if(a == null || presort(a,0,a.length-1) != PRESORT_NONE) return;
+        advancedSort(a.clone(),a,0,a.length-1);
+    }
+
+    /**
+     * 综合优化 插入+归并 long版本
+     */
+    public static void advancedSort(long[] a){
+        if(a == null || presort(a,0,a.length-1) != PRESORT_NONE) return;
+        advancedSort(a.clone(),a,0,a.length-1);
+    }
+
+    /**
+     * 综合优化 插入+归并 float版本
+     */
+    public static void advancedSort(float[] a){
+        if(a == null) return;
+        int r = moveNaNToEnd(a,0,a.length-1);
+        if(presort(a,0,r) == PRESORT_NONE) advancedSort(a.clone(),a,0,r);
+        sortNegativeZero(a,0,r);
+    }
+
+    /**
+     * 综合优化 插入+归并 double版本
+     */
+    public static void advancedSort(double[] a){
+        if(a == null) return;
+        int r = moveNaNToEnd(a,0,a.length-1);
+        if(presort(a,0,r) == PRESORT_NONE) advancedSort(a.clone(),a,0,r);
+        sortNegativeZero(a,0,r);
+    }
+
+    /**
+     * 综合优化 插入+归并 int版本 排序区间[l,r]
+     */
+    private static void advancedSort(int[] src,int[] dst,int l, int r){
+        if(r-l < THRESHOLD){
+            InsertionSort.insertionSort(dst,l,r);
+            return;
+        }
+
+        int mid = l + ((r-l)>>1);
+        advancedSort(dst,src,l,mid);
+        advancedSort(dst,src,mid+1,r);
+
+        //如果已经有序，则跳过合并
+        if(src[mid] <= src[mid+1]){
+            System.arraycopy(src,l,dst,l,r-l+1);
+            return;
+        }
+
+        merge(src,dst,l,mid,r);
+    }
+
+    /**
+     * 归并数组 int版本 归并区间[l,mid] [mid+1,r]
+     */
+    private static void merge(int[] src,int[] dst,int l,int mid,int r){
+        int i = l;
+        int j = mid+1;
+        for(int k=l;k<=r;k++){
+            if(j>r) dst[k]=src[i++];
+            else if(i>mid) dst[k]=src[j++];
+            else if(src[j] < src[i]) dst[k] = src[j++];
+            else dst[k] = src[i++];
+        }
+    }
+
+    /**
+     * 综合优化 插入+归并 long版本 排序区间[l,r]
+     */
+    private static void advancedSort(long[] src,long[] dst,int l, int r){
+        if(r-l < THRESHOLD){
+            InsertionSort.insertionSort(dst,l,r);
+            return;
+        }
+
+        int mid = l + ((r-l)>>1);
+        advancedSort(dst,src,l,mid);
+        advancedSort(dst,src,mid+1,r);
+
+        //如果已经有序，则跳过合并
+        if(src[mid] <= src[mid+1]){
+            System.arraycopy(src,l,dst,l,r-l+1);
+            return;
+        }
+
+        merge(src,dst,l,mid,r);
+    }
+
+    /**
+     * 归并数组 long版本 归并区间[l,mid] [mid+1,r]
+     */
+    private static void merge(long[] src,long[] dst,int l,int mid,int r){
+        int i = l;
+        int j = mid+1;
+        for(int k=l;k<=r;k++){
+            if(j>r) dst[k]=src[i++];
+            else if(i>mid) dst[k]=src[j++];
+            else if(src[j] < src[i]) dst[k] = src[j++];
+            else dst[k] = src[i++];
+        }
+    }
+
+    /**
+     * 综合优化 插入+归并 float版本 排序区间[l,r]
+     */
+    private static void advancedSort(float[] src,float[] dst,int l, int r){
+        if(r-l < THRESHOLD){
+            InsertionSort.insertionSort(dst,l,r);
+            return;
+        }
+
+        int mid = l + ((r-l)>>1);
+        advancedSort(dst,src,l,mid);
+        advancedSort(dst,src,mid+1,r);
+
+        //如果已经有序，则跳过合并
+        if(src[mid] <= src[mid+1]){
+            System.arraycopy(src,l,dst,l,r-l+1);
+            return;
+        }
+
+        merge(src,dst,l,mid,r);
+    }
+
+    /**
+     * 归并数组 float版本 归并区间[l,mid] [mid+1,r]
+     */
+    private static void merge(float[] src,float[] dst,int l,int mid,int r){
+        int i = l;
+        int j = mid+1;
+        for(int k=l;k<=r;k++){
+            if(j>r) dst[k]=src[i++];
+            else if(i>mid) dst[k]=src[j++];
+            else if(src[j] < src[i]) dst[k] = src[j++];
+            else dst[k] = src[i++];
+        }
+    }
+
+    /**
+     * 综合优化 插入+归并 double版本 排序区间[l,r]
+     */
+    private static void advancedSort(double[] src,double[] dst,int l, int r){
+        if(r-l < THRESHOLD){
+            InsertionSort.insertionSort(dst,l,r);
+            return;
+        }
+
+        int mid = l + ((r-l)>>1);
+        advancedSort(dst,src,l,mid);
+        advancedSort(dst,src,mid+1,r);
+
+        //如果已经有序，则跳过合并
+        if(src[mid] <= src[mid+1]){
+            System.arraycopy(src,l,dst,l,r-l+1);
+            return;
+        }
+
+        merge(src,dst,l,mid,r);
+    }
+
+    /**
+     * 归并数组 double版本 归并区间[l,mid] [mid+1,r]
+     */
+    private static void merge(double[] src,double[] dst,int l,int mid,int r){
+        int i = l;
+        int j = mid+1;
+        for(int k=l;k<=r;k++){
+            if(j>r) dst[k]=src[i++];
+            else if(i>mid) dst[k]=src[j++];
+            else if(src[j] < src[i]) dst[k] = src[j++];
+            else dst[k] = src[i++];
+        }
+    }
+
+    /**
+     * 自底向上 自然归并 int版本
+     */
+    public static void bottomUpSort(int[] a){
+        if(a == null) return;
+        bottomUpSort(a,a.length);
+    }
+
+    /**
+     * 自底向上 自然归并 long版本
+     */
+    public static void bottomUpSort(long[] a){
+        if(a == null) return;
+        bottomUpSort(a,a.length);
+    }
+
+    /**
+     * 自底向上 自然归并 float版本
+     */
+    public static void bottomUpSort(float[] a){
+        if(a == null) return;
+        int r = moveNaNToEnd(a,0,a.length-1);
+        bottomUpSort(a,r+1);
+        sortNegativeZero(a,0,r);
+    }
+
+    /**
+     * 自底向上 自然归并 double版本
+     */
+    public static void bottomUpSort(double[] a){
+        if(a == null) return;
+        int r = moveNaNToEnd(a,0,a.length-1);
+        bottomUpSort(a,r+1);
+        sortNegativeZero(a,0,r);
+    }
+
+    /**
+     * 自底向上 自然归并 int版本 排序区间[0,n)
+     */
+    private static void bottomUpSort(int[] a,int n){
+        if(n < 2) return;
+        int[] runs = new int[n / MIN_RUN + 2];
+        int count = 0;
+        for(int lo = 0; lo < n; ){
+            runs[count++] = lo;
+            int hi = lo+1;
+            if(hi < n){
+                if(a[hi] < a[lo]){
+                    while(++hi < n && a[hi] < a[hi-1]);
+                    for(int i=lo,j=hi-1;i<j;i++,j--) swap(a,i,j);
+                }
+                else while(++hi < n && a[hi] >= a[hi-1]);
+            }
+            if(hi - lo < MIN_RUN){
+                hi = Math.min(lo + MIN_RUN, n);
+                InsertionSort.insertionSort(a,lo,hi-1);
+            }
+            lo = hi;
+        }
+        runs[count] = n;
+        if(count == 1) return;
+
+        int[] src = a, dst = new int[n];
+        while(count > 1){
+            int merged = 0;
+            for(int i=0;i<count;i+=2){
+                int l = runs[i];
+                runs[merged++] = l;
+                if(i+1 == count){
+                    System.arraycopy(src,l,dst,l,n-l);
+                    break;
+                }
+                int mid = runs[i+1]-1, r = runs[i+2]-1;
+                if(src[mid] <= src[mid+1]) System.arraycopy(src,l,dst,l,r-l+1);
+                else merge(src,dst,l,mid,r);
+            }
+            runs[merged] = n;
+            count = merged;
+            int[] t = src;
+            src = dst;
+            dst = t;
+        }
+        if(src != a) System.arraycopy(src,0,a,0,n);
+    }
+
+    /**
+     * 自底向上 自然归并 long版本 排序区间[0,n)
+     */
+    private static void bottomUpSort(long[] a,int n){
+        if(n < 2) return;
+        int[] runs = new int[n / MIN_RUN + 2];
+        int count = 0;
+        for(int lo = 0; lo < n; ){
+            runs[count++] = lo;
+            int hi = lo+1;
+            if(hi < n){
+                if(a[hi] < a[lo]){
+                    while(++hi < n && a[hi] < a[hi-1]);
+                    for(int i=lo,j=hi-1;i<j;i++,j--) swap(a,i,j);
+                }
+                else while(++hi < n && a[hi] >= a[hi-1]);
+            }
+            if(hi - lo < MIN_RUN){
+                hi = Math.min(lo + MIN_RUN, n);
+                InsertionSort.insertionSort(a,lo,hi-1);
+            }
+            lo = hi;
+        }
+        runs[count] = n;
+        if(count == 1) return;
+
+        long[] src = a, dst = new long[n];
+        while(count > 1){
+            int merged = 0;
+            for(int i=0;i<count;i+=2){
+                int l = runs[i];
+                runs[merged++] = l;
+                if(i+1 == count){
+                    System.arraycopy(src,l,dst,l,n-l);
+                    break;
+                }
+                int mid = runs[i+1]-1, r = runs[i+2]-1;
+                if(src[mid] <= src[mid+1]) System.arraycopy(src,l,dst,l,r-l+1);
+                else merge(src,dst,l,mid,r);
+            }
+            runs[merged] = n;
+            count = merged;
+            long[] t = src;
+            src = dst;
+            dst = t;
+        }
+        if(src != a) System.arraycopy(src,0,a,0,n);
+    }
+
+    /**
+     * 自底向上 自然归并 float版本 排序区间[0,n)
+     */
+    private static void bottomUpSort(float[] a,int n){
+        if(n < 2) return;
+        int[] runs = new int[n / MIN_RUN + 2];
+        int count = 0;
+        for(int lo = 0; lo < n; ){
+            runs[count++] = lo;
+            int hi = lo+1;
+            if(hi < n){
+                if(a[hi] < a[lo]){
+                    while(++hi < n && a[hi] < a[hi-1]);
+                    for(int i=lo,j=hi-1;i<j;i++,j--) swap(a,i,j);
+                }
+                else while(++hi < n && a[hi] >= a[hi-1]);
+            }
+            if(hi - lo < MIN_RUN){
+                hi = Math.min(lo + MIN_RUN, n);
+                InsertionSort.insertionSort(a,lo,hi-1);
+            }
+            lo = hi;
+        }
+        runs[count] = n;
+        if(count == 1) return;
+
+        float[] src = a, dst = new float[n];
+        while(count > 1){
+            int merged = 0;
+            for(int i=0;i<count;i+=2){
+                int l = runs[i];
+                runs[merged++] = l;
+                if(i+1 == count){
+                    System.arraycopy(src,l,dst,l,n-l);
+                    break;
+                }
+                int mid = runs[i+1]-1, r = runs[i+2]-1;
+                if(src[mid] <= src[mid+1]) System.arraycopy(src,l,dst,l,r-l+1);
+                else merge(src,dst,l,mid,r);
+            }
+            runs[merged] = n;
+            count = merged;
+            float[] t = src;
+            src = dst;
+            dst = t;
+        }
+        if(src != a) System.arraycopy(src,0,a,0,n);
+    }
+
+    /**
+     * 自底向上 自然归并 double版本 排序区间[0,n)
+     */
+    private static void bottomUpSort(double[] a,int n){
+        if(n < 2) return;
+        int[] runs = new int[n / MIN_RUN + 2];
+        int count = 0;
+        for(int lo = 0; lo < n; ){
+            runs[count++] = lo;
+            int hi = lo+1;
+            if(hi < n){
+                if(a[hi] < a[lo]){
+                    while(++hi < n && a[hi] < a[hi-1]);
+                    for(int i=lo,j=hi-1;i<j;i++,j--) swap(a,i,j);
+                }
+                else while(++hi < n && a[hi] >= a[hi-1]);
+            }
+            if(hi - lo < MIN_RUN){
+                hi = Math.min(lo + MIN_RUN, n);
+                InsertionSort.insertionSort(a,lo,hi-1);
+            }
+            lo = hi;
+        }
+        runs[count] = n;
+        if(count == 1) return;
+
+        double[] src = a, dst = new double[n];
+        while(count > 1){
+            int merged = 0;
+            for(int i=0;i<count;i+=2){
+                int l = runs[i];
+                runs[merged++] = l;
+                if(i+1 == count){
+                    System.arraycopy(src,l,dst,l,n-l);
+                    break;
+                }
+                int mid = runs[i+1]-1, r = runs[i+2]-1;
+                if(src[mid] <= src[mid+1]) System.arraycopy(src,l,dst,l,r-l+1);
+                else merge(src,dst,l,mid,r);
+            }
+            runs[merged] = n;
+            count = merged;
+            double[] t = src;
+            src = dst;
+            dst = t;
         }
+        if(src != a) System.arraycopy(src,0,a,0,n);
     }
 
     /**
@@ -6,6 +6,7 @@ import util.StopWatch;
 import java.lang.reflect.Array;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * @className: MyTimSort
@@ -48,8 +49,18 @@ public class MyTimSort<T> extends BaseSort{
 
     private int minGallop = MIN_GALLOP;
 
+    //复用的工作区, 为null时tmp和栈由构造函数分配
+    private final Workspace workspace;
+
+    //本次排序中tmp被使用的最大长度, 排序结束后清空工作区中这部分引用
+    private int tmpUsed;
+
+    //统计信息, 为null时不统计
+    private Stats stats;
+
 
     public MyTimSort(T[] a, Comparator<? super T> c){
+        this.workspace = null;
         this.a = a;
         this.c = c;
 
@@ -60,6 +71,7 @@ public class MyTimSort<T> extends BaseSort{
         assert tlen <= INITIAL_TMP_STORAGE_LENGTH;
 
         T[] newArray = (T[]) Array.newInstance(a.getClass().getComponentType(),tlen);
+        countAllocation(tlen);
 
         tmp = newArray;
         tmpBase = 0;
@@ -75,6 +87,145 @@ public class MyTimSort<T> extends BaseSort{
 
     }
 
+    /**
+     * 使用工作区中的tmp和栈, 不再分配
+     */
+    @SuppressWarnings("unchecked")
+    private MyTimSort(T[] a, Comparator<? super T> c, Workspace workspace){
+        this.a = a;
+        this.c = c;
+        this.workspace = workspace;
+
+        tmp = (T[]) workspace.tmp;
+        tmpBase = 0;
+        tmpLen = tmp.length;
+
+        runBase = workspace.runBase;
+        runLen = workspace.runLen;
+    }
+
+    /**
+     * 可复用的工作区: 保存tmp和run栈, 在多次排序之间复用, 避免每次排序都分配tmp、runBase和runLen。
+     * tmp只会增长, 保留历次排序中用到的最大长度。
+     *
+     * 工作区不是线程安全的, 同一时刻只能被一个线程使用,
+     * 例如每个线程持有一个, 或者 ThreadLocal.withInitial(MyTimSort.Workspace::new)。
+     */
+    public static final class Workspace {
+
+        //int范围内的数组, run栈的深度不会超过49(见构造函数中的stackLen)
+        private static final int MAX_STACK_LENGTH = 49;
+
+        private Object[] tmp;
+        private final int[] runBase = new int[MAX_STACK_LENGTH];
+        private final int[] runLen = new int[MAX_STACK_LENGTH];
+
+        public Workspace(){
+            this(INITIAL_TMP_STORAGE_LENGTH);
+        }
+
+        /**
+         * @param initialCapacity tmp的初始长度, 排序长度为n的数组最多需要n/2
+         */
+        public Workspace(int initialCapacity){
+            if(initialCapacity < 0) throw new IllegalArgumentException("initialCapacity must be >= 0: " + initialCapacity);
+            tmp = new Object[initialCapacity];
+        }
+
+        /**
+         * @return tmp当前的长度
+         */
+        public int capacity(){
+            return tmp.length;
+        }
+    }
+
+    /**
+     * 排序统计: run、合并、Galloping mode、比较次数和tmp的峰值长度, 用于调整MIN_MERGE、MIN_GALLOP,
+     * 以及判断数据中的有序片段是否足够多, 值得使用TimSort。
+     *
+     * 传入sort(a,lo,hi,c,workspace,stats)时才会统计, 不传入时没有任何额外开销:
+     * 比较次数通过包装比较器统计, 其它统计只在run和合并的粒度上记录。
+     * 多次排序的结果会累加, 不是线程安全的。
+     */
+    public static final class Stats {
+        private long runs;                  //自然run的个数
+        private long runElements;           //自然run的元素总数(折半插入填充之前)
+        private int maxRunLength;           //最长的自然run
+        private long shortRuns;             //长度不足minRun, 需要折半插入填充的run
+        private long mergeLoCount;          //mergeLo的次数
+        private long mergeHiCount;          //mergeHi的次数
+        private long skippedMerges;         //gallop裁剪后发现已经有序, 不需要合并的次数
+        private long gallopModes;           //进入Galloping mode的次数
+        private long gallopNanos;           //在Galloping mode中的时间
+        private long comparisons;           //比较次数
+        private int peakTmpLength;          //tmp的峰值长度: 没有工作区时为分配的长度, 使用工作区时为本次排序用到的长度
+
+        /**
+         * 包装比较器, 统计比较次数
+         */
+        private <T> Comparator<T> counting(Comparator<T> c){
+            return (x, y) -> {
+                comparisons++;
+                return c.compare(x, y);
+            };
+        }
+
+        private void recordRun(int runLen, int minRunLen){
+            runs++;
+            runElements += runLen;
+            if(runLen > maxRunLength) maxRunLength = runLen;
+            if(runLen < minRunLen) shortRuns++;
+        }
+
+        private void recordTmpLength(int tmpLen){
+            if(tmpLen > peakTmpLength) peakTmpLength = tmpLen;
+        }
+
+        public long getRuns(){ return runs; }
+
+        public int getMaxRunLength(){ return maxRunLength; }
+
+        public long getShortRuns(){ return shortRuns; }
+
+        /**
+         * @return 自然run的平均长度, 远大于MIN_MERGE时说明数据有较多有序片段
+         */
+        public double getAverageRunLength(){ return runs == 0 ? 0 : (double) runElements / runs; }
+
+        public long getMerges(){ return mergeLoCount + mergeHiCount; }
+
+        public long getMergeLoCount(){ return mergeLoCount; }
+
+        public long getMergeHiCount(){ return mergeHiCount; }
+
+        public long getSkippedMerges(){ return skippedMerges; }
+
+        public long getGallopModes(){ return gallopModes; }
+
+        public long getGallopNanos(){ return gallopNanos; }
+
+        public long getComparisons(){ return comparisons; }
+
+        public int getPeakTmpLength(){ return peakTmpLength; }
+
+        public void reset(){
+            runs = runElements = shortRuns = 0;
+            maxRunLength = peakTmpLength = 0;
+            mergeLoCount = mergeHiCount = skippedMerges = 0;
+            gallopModes = gallopNanos = comparisons = 0;
+        }
+
+        @Override
+        public String toString(){
+            return String.format("runs=%d (avg %.1f, max %d, short %d), merges=%d (lo %d, hi %d, skipped %d), "
+                            + "gallop=%d (%.3f ms), comparisons=%d, peakTmp=%d",
+                    runs, getAverageRunLength(), maxRunLength, shortRuns,
+                    getMerges(), mergeLoCount, mergeHiCount, skippedMerges,
+                    gallopModes, gallopNanos / 1e6, comparisons, peakTmpLength);
+        }
+    }
+
     /**
      * 排序区间 [lo,hi）
      *
@@ -111,6 +262,35 @@ public class MyTimSort<T> extends BaseSort{
      * @param <T> 待排数组类型
      */
     public static <T> void sort(T[] a, int lo, int hi, Comparator<? super T> c){
+        sort(a,lo,hi,c,null);
+    }
+
+    /**
+     * 排序区间 [lo,hi）, 使用工作区中的tmp和栈
+     *
+     * @param a 待排数组
+     * @param lo 待排数组左边界,包括
+     * @param hi 待排数组右边界，不包括
+     * @param c 比较器
+     * @param workspace 工作区, 为null时每次排序重新分配
+     * @param <T> 待排数组类型
+     */
+    public static <T> void sort(T[] a, int lo, int hi, Comparator<? super T> c, Workspace workspace){
+        sort(a,lo,hi,c,workspace,null);
+    }
+
+    /**
+     * 排序区间 [lo,hi）, 并记录统计信息
+     *
+     * @param a 待排数组
+     * @param lo 待排数组左边界,包括
+     * @param hi 待排数组右边界，不包括
+     * @param c 比较器
+     * @param workspace 工作区, 为null时每次排序重新分配
+     * @param stats 统计信息, 为null时不统计
+     * @param <T> 待排数组类型
+     */
+    public static <T> void sort(T[] a, int lo, int hi, Comparator<? super T> c, Workspace workspace, Stats stats){
 
         assert c != null && a != null && lo >= 0 && lo <= hi && hi <= a.length;
 
@@ -120,36 +300,218 @@ public class MyTimSort<T> extends BaseSort{
         //如果长度小于2，则不需要排序
         if(nRemaining < 2) return;
 
+        if(SortCounter.ENABLED) c = SortCounter.counting(c);
+        if(stats != null) c = stats.counting(c);
+
         //如果数组元素个数小于 MIN_MERGE(32) 则使用折半插入
         if(nRemaining < MIN_MERGE){
             int initRunLen = countRunAndMakeAscending(a,lo,hi,c);
+            if(stats != null) stats.recordRun(initRunLen, nRemaining);
             binarySort(a,lo,hi,lo+initRunLen,c);
             return;
         }
 
-        MyTimSort<T> ts = new MyTimSort<>(a, c);
-        int minRunLen = minRunLength(nRemaining);
-        do{
-            int runLen = countRunAndMakeAscending(a,lo,hi,c);
-            //如果一个run的长度小于minRunLen，则使用折半插入填充run
-            if(runLen < minRunLen){
-                //force = min(nRemaining,minRunLen)
-                int force = nRemaining<minRunLen ? nRemaining:minRunLen;
-                binarySort(a,lo,lo+force,lo+runLen,c);
-                runLen = force;
+        MyTimSort<T> ts = workspace == null ? new MyTimSort<>(a, c) : new MyTimSort<>(a, c, workspace);
+        if(stats != null){
+            ts.stats = stats;
+            //工作区的tmp可能是之前更大的排序留下的, 结束时按tmpUsed统计
+            if(workspace == null) stats.recordTmpLength(ts.tmpLen);
+        }
+        //比较器抛出异常时同样清空工作区, 工作区不会继续持有调用方元素的引用
+        try{
+            int minRunLen = minRunLength(nRemaining);
+            do{
+                int runLen = countRunAndMakeAscending(a,lo,hi,c);
+                if(stats != null) stats.recordRun(runLen, Math.min(nRemaining, minRunLen));
+                //如果一个run的长度小于minRunLen，则使用折半插入填充run
+                if(runLen < minRunLen){
+                    //force = min(nRemaining,minRunLen)
+                    int force = nRemaining<minRunLen ? nRemaining:minRunLen;
+                    binarySort(a,lo,lo+force,lo+runLen,c);
+                    runLen = force;
+                }
+
+                ts.pushRun(lo,runLen);
+                ts.mergeCollapse();
+
+                lo += runLen;
+                nRemaining -= runLen;
+            }while(nRemaining > 0);
+
+            assert lo == hi;
+            ts.mergeForceCollapse();
+            assert ts.stackSize == 1;
+        }finally{
+            if(workspace != null){
+                if(stats != null) stats.recordTmpLength(ts.tmpUsed);
+                ts.releaseWorkspace();
             }
+        }
+    }
 
-            ts.pushRun(lo,runLen);
-            ts.mergeCollapse();
+//-----------------------------------并行TimSort Fork/Join------------------------------------------
 
-            lo += runLen;
-            nRemaining -= runLen;
-        }while(nRemaining > 0);
+    /*
+     * 并行TimSort:
+     *      1. 排序: 递归二分, 区间长度 <= grain 时由一个独立的MyTimSort实例串行排序,
+     *         每个实例有自己的tmp和run栈, 线程之间不共享状态;
+     *      2. 合并: 两个子任务完成后, 把两个有序区间作为两个run压入一个新的MyTimSort实例的栈,
+     *         用mergeAt合并(gallopRight/gallopLeft裁剪两端 + mergeLo/mergeHi的Galloping mode)。
+     *         同一层不同区间的合并并行执行。
+     *
+     *      对基本有序的数据, 每个子区间只有很少的run, 合并时gallopRight直接发现区间已经有序, 合并被跳过。
+     *      与串行TimSort一样是稳定的。
+     */
 
-        assert lo == hi;
-        ts.mergeForceCollapse();
-        assert ts.stackSize == 1;
+    //并行排序的最小子任务长度, 与Arrays.parallelSort一致
+    private static final int MIN_PARALLEL_GRAIN = 1 << 13;
 
+    /**
+     * 并行TimSort 排序区间 [lo,hi）, 使用ForkJoinPool.commonPool()
+     * 子任务长度为 max(n / (并行度*4), MIN_PARALLEL_GRAIN)
+     * @param a 待排数组
+     * @param lo 待排数组左边界,包括
+     * @param hi 待排数组右边界，不包括
+     * @param c 比较器
+     * @param <T> 待排数组类型
+     */
+    public static <T> void parallelSort(T[] a, int lo, int hi, Comparator<? super T> c){
+        int p = ForkJoinPool.getCommonPoolParallelism();
+        parallelSort(a, lo, hi, c, Math.max((hi - lo) / (p << 2), MIN_PARALLEL_GRAIN));
+    }
+
+    /**
+     * 并行TimSort 排序区间 [lo,hi）
+     * @param a 待排数组
+     * @param lo 待排数组左边界,包括
+     * @param hi 待排数组右边界，不包括
+     * @param c 比较器
+     * @param grain 子任务长度, 区间长度 <= grain时串行排序
+     * @param <T> 待排数组类型
+     */
+    public static <T> void parallelSort(T[] a, int lo, int hi, Comparator<? super T> c, int grain){
+        if(grain < MIN_MERGE) throw new IllegalArgumentException("grain must be >= " + MIN_MERGE + ": " + grain);
+        if(hi - lo <= grain || ForkJoinPool.getCommonPoolParallelism() == 1){
+            sort(a,lo,hi,c);
+            return;
+        }
+        new SortTask<>(a,c,lo,hi,grain).invoke();
+    }
+
+    /**
+     * 排序任务: 排序区间 [lo,hi）
+     */
+    private static final class SortTask<T> extends CountedTask {
+        private static final long serialVersionUID = 1L;
+
+        private final T[] a;
+        private final Comparator<? super T> c;
+        private final int lo;
+        private final int hi;
+        private final int grain;
+
+        SortTask(T[] a, Comparator<? super T> c, int lo, int hi, int grain){
+            this.a = a;
+            this.c = c;
+            this.lo = lo;
+            this.hi = hi;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void doCompute() {
+            if(hi - lo <= grain){
+                sort(a,lo,hi,c);
+                return;
+            }
+
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new SortTask<>(a,c,lo,mid,grain),
+                      new SortTask<>(a,c,mid,hi,grain));
+
+            //两个有序区间作为两个run合并
+            MyTimSort<T> ts = new MyTimSort<>(a, SortCounter.ENABLED ? SortCounter.counting(c) : c);
+            ts.pushRun(lo,mid-lo);
+            ts.pushRun(mid,hi-mid);
+            ts.mergeAt(0);
+        }
+    }
+
+//-------------------------------基本类型 int/long/float/double 实现---------------------------------
+
+    /*
+     * 基本类型版本的实现分别在 IntTimSort / LongTimSort / FloatTimSort / DoubleTimSort 中，
+     * 用 < 直接比较，避免装箱和Comparator的调用。对基本有序的数据（例如时间序列）最有利。
+     *
+     * float/double 按照 Double.compare 的约定排序: NaN排在最后, -0.0排在0.0之前。
+     */
+
+    /**
+     * TimSort int版本
+     * @param a 待排数组
+     */
+    public static void sort(int[] a){
+        if(a == null) return;
+        IntTimSort.sort(a,0,a.length);
+    }
+
+    /**
+     * TimSort int版本 排序区间 [lo,hi）
+     */
+    public static void sort(int[] a, int lo, int hi){
+        IntTimSort.sort(a,lo,hi);
+    }
+
+    /**
+     * TimSort long版本
+     * @param a 待排数组
+     */
+    public static void sort(long[] a){
+        if(a == null) return;
+        LongTimSort.sort(a,0,a.length);
+    }
+
+    /**
+     * TimSort long版本 排序区间 [lo,hi）
+     */
+    public static void sort(long[] a, int lo, int hi){
+        LongTimSort.sort(a,lo,hi);
+    }
+
+    /**
+     * TimSort float版本
+     * @param a 待排数组
+     */
+    public static void sort(float[] a){
+        if(a == null) return;
+        sort(a,0,a.length);
+    }
+
+    /**
+     * TimSort float版本 排序区间 [lo,hi）
+     */
+    public static void sort(float[] a, int lo, int hi){
+        int r = moveNaNToEnd(a,lo,hi-1);
+        FloatTimSort.sort(a,lo,r+1);
+        sortNegativeZero(a,lo,r);
+    }
+
+    /**
+     * TimSort double版本
+     * @param a 待排数组
+     */
+    public static void sort(double[] a){
+        if(a == null) return;
+        sort(a,0,a.length);
+    }
+
+    /**
+     * TimSort double版本 排序区间 [lo,hi）
+     */
+    public static void sort(double[] a, int lo, int hi){
+        int r = moveNaNToEnd(a,lo,hi-1);
+        DoubleTimSort.sort(a,lo,r+1);
+        sortNegativeZero(a,lo,r);
     }
 
     /**
@@ -187,6 +549,7 @@ public class MyTimSort<T> extends BaseSort{
             T t = a[start];
             int n = start - l;
             System.arraycopy(a,l,a,l+1,n);
+            countMoves(n+1);
             //源码是这样写的，很巧妙
 //            switch (n) {
 //                case 2:  a[left + 2] = a[left + 1];
@@ -248,6 +611,7 @@ public class MyTimSort<T> extends BaseSort{
             Object o = a[lo];
             a[lo++] = a[hi];
             a[hi--] = o;
+            if(SortCounter.ENABLED) SortCounter.swap();
         }
     }
 
@@ -365,22 +729,32 @@ public class MyTimSort<T> extends BaseSort{
         //如果 k==len1,表明run[i+1]的第一个元素比run[i]中所有元素都大，即为有序序列
         base1+=k;
         len1 -= k;
-        if(len1==0)return;
+        if(len1==0){
+            if(stats != null) stats.skippedMerges++;
+            return;
+        }
 
         //查找run[i]的最后一个元素在run[i+1]中的插入位置（左边界）
 //        len2 = gallopLeft(a[base1+len1-1],a,base2,len2,c);
         len2 = gallopLeft(a[base1 + len1 - 1], a, base2,len2, c);
         assert len2 >= 0;
         //如果 len2==0,表明run[i]的最后一个元素比run[i+1]中所有元素都小，即为有序序列
-        if(len2==0)return;
+        if(len2==0){
+            if(stats != null) stats.skippedMerges++;
+            return;
+        }
 
         //合并,那边的合并元素比较少，就copy元素少的到临时数组
         //if len1<len2,则copy a[base1,base1+len1-1]到临时数组tmp
         //if len1>len2,则copy a[base2,base2+len2-1]到临时数组tmp
         //if len1=len2,都可以
+        //较短的run复制到tmp, 合并时两个run的元素各写回一次
+        countMoves(Math.min(len1,len2) + len1 + len2);
         if(len1<len2){
+            if(stats != null) stats.mergeLoCount++;
             mergeLo(base1,len1,base2,len2);
         }else{
+            if(stats != null) stats.mergeHiCount++;
             mergeHi(base1,len1,base2,len2);
         }
 
@@ -478,6 +852,7 @@ public class MyTimSort<T> extends BaseSort{
 
         Comparator<? super T> c = this.c;
         int minGallop = this.minGallop;
+        long gallopStart = 0;               //进入Galloping mode的时间, 只在统计时使用
         outer:
             while(true){
                 int count1 = 0;             //计算run1中连续小于run2中元素的次数
@@ -507,6 +882,7 @@ public class MyTimSort<T> extends BaseSort{
                  *
                  * 同时减少阀值，更容易进入Galloping mode
                  */
+                if(stats != null) gallopStart = startGallop();
                 do{
                     assert len1 > 1 && len2 > 0;
                     count1 = gallopRight(a[cursor2],tmp,cursor1,len1,c);
@@ -536,11 +912,13 @@ public class MyTimSort<T> extends BaseSort{
                     //减少阀值，更容易进入Galloping mode
                     minGallop--;
                 }while(count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+                gallopStart = endGallop(gallopStart);
 
                 if (minGallop < 0)
                     minGallop = 0;
                 minGallop += 2;  // 退出Galloping mode，增加阀值大小
             }
+        endGallop(gallopStart);
         this.minGallop = minGallop < 1 ? 1 : minGallop;  // Write back to field
 
         if (len1 == 1) {
@@ -610,6 +988,7 @@ public class MyTimSort<T> extends BaseSort{
 
         Comparator<? super T> c = this.c;
         int minGallop = this.minGallop;
+        long gallopStart = 0;               //进入Galloping mode的时间, 只在统计时使用
 
         outer:
             while(true){
@@ -633,6 +1012,7 @@ public class MyTimSort<T> extends BaseSort{
                 }while((count1|count2)<minGallop);
 
                 //进入Gallop mode
+                if(stats != null) gallopStart = startGallop();
                 do{
                     assert len1 > 0 && len2 > 1;
                     count1 =len1 - gallopRight(tmp[cursor2],a,base1,len1,c);
@@ -659,10 +1039,12 @@ public class MyTimSort<T> extends BaseSort{
 
                     minGallop--;
                 }while(count1>=MIN_GALLOP | count2>=MIN_GALLOP);
+                gallopStart = endGallop(gallopStart);
 
                 if(minGallop<0)minGallop = 0;
                 minGallop+=2;
             }
+        endGallop(gallopStart);
 
         this.minGallop = minGallop < 1 ? 1 : minGallop;  // Write back to field
 
@@ -687,6 +1069,7 @@ public class MyTimSort<T> extends BaseSort{
 
 
     private T[] ensureCapacity(int minCapacity) {
+        if (tmpUsed < minCapacity) tmpUsed = minCapacity;
         if (tmpLen < minCapacity) {
             int newSize = -1 >>> Integer.numberOfLeadingZeros(minCapacity);
             newSize++;
@@ -696,16 +1079,50 @@ public class MyTimSort<T> extends BaseSort{
             else
                 newSize = Math.min(newSize, a.length >>> 1);
 
-            @SuppressWarnings({"unchecked", "UnnecessaryLocalVariable"})
-            T[] newArray = (T[])java.lang.reflect.Array.newInstance
-                    (a.getClass().getComponentType(), newSize);
-            tmp = newArray;
+            if (workspace != null) {
+                //工作区会被不同类型的数组复用, 使用Object[]
+                Object[] newArray = new Object[newSize];
+                workspace.tmp = newArray;
+                tmp = (T[]) newArray;
+            } else {
+                @SuppressWarnings({"unchecked", "UnnecessaryLocalVariable"})
+                T[] newArray = (T[])java.lang.reflect.Array.newInstance
+                        (a.getClass().getComponentType(), newSize);
+                tmp = newArray;
+            }
             tmpLen = newSize;
             tmpBase = 0;
+            countAllocation(newSize);
+            if (stats != null && workspace == null) stats.recordTmpLength(newSize);
         }
         return tmp;
     }
 
+    /**
+     * 进入Galloping mode, 返回开始时间
+     */
+    private long startGallop() {
+        stats.gallopModes++;
+        return System.nanoTime();
+    }
+
+    /**
+     * 退出Galloping mode, 累加Galloping mode中的时间
+     * @param gallopStart 开始时间, 为0时表示不在Galloping mode中
+     * @return 0
+     */
+    private long endGallop(long gallopStart) {
+        if (gallopStart != 0) stats.gallopNanos += System.nanoTime() - gallopStart;
+        return 0;
+    }
+
+    /**
+     * 清空工作区tmp中用过的部分, 工作区不会持有已排序元素的引用
+     */
+    private void releaseWorkspace() {
+        Arrays.fill(tmp, 0, tmpUsed, null);
+    }
+
     /**
      * 测试规模：
      *
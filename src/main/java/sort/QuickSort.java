@@ -4,6 +4,7 @@ import util.RandomArrayUtil;
 import util.StopWatch;
 
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * @className: QuickSort
@@ -176,9 +177,11 @@ public class QuickSort extends BaseSort implements SortedCompared{
             // tmp >= a[i] <=> !(tmp < a[i]) <=> !less(tmp,a[i])
             while(i<j && !less(tmp,a[i]))i++;
             a[j] = a[i];
+            countMoves(2);
         }
         //此时 i==j
         a[j] = tmp;
+        countMoves(1);
         return j;
     }
 
@@ -196,6 +199,7 @@ public class QuickSort extends BaseSort implements SortedCompared{
      * 性能优化原因:
      *          1. 对小规模子数组采用插入排序: 避免了对小规模的数组进行递归而产生过多的小数组甚至是空数组调用栈
      *          2. 三取样切分, 选择子数组一小部分的中位数来切分(保证尽量切分均匀)
+     *          3. 入口先调用BaseSort.presort()预扫描: 已有序直接返回, 严格递减时原地反转, 随机数据只多几次比较
      *
      */
 
@@ -205,7 +209,7 @@ public class QuickSort extends BaseSort implements SortedCompared{
      * @param <K>
      */
     public static <K extends Comparable<K>> void advanceQuickSort1(K[] a){
-        if(a == null) return;
+        if(a == null || presort(a,0,a.length-1) != PRESORT_NONE) return;
         advanceQuickSort1(a,0,a.length-1);
     }
 
@@ -351,6 +355,7 @@ public class QuickSort extends BaseSort implements SortedCompared{
         K tmp = a[l];
 
         while(k<=j){
+            if(SortCounter.ENABLED) SortCounter.compare();
             int cmp = a[k].compareTo(tmp);
             //这里k++，是因为从下标为i，交换到下标为k的元素a[i] 等于 tmp，可以跳过
             // if(cmp < 0)swap(a,i++,k)也是可以的，会多做一次比较
@@ -380,6 +385,275 @@ public class QuickSort extends BaseSort implements SortedCompared{
                 (less(a[r],a[mid]) ? (less(a[mid],a[l]) ? mid : l) : r);
     }
 
+//-------------------------------------双轴快排 实现----------------------------------------------
+
+    /*
+     * 双轴快排(Yaroslavskiy):
+     *      1. 在区间[l,r]中取5个等距样本, 排序后取第2个和第4个作为基准 p1 <= p2,
+     *         分别交换到 a[l] 和 a[r];
+     *      2. 一次遍历把区间切分成三部分:
+     *          a. a[l+1…lt-1] < p1
+     *          b. p1 <= a[lt…k-1] <= p2
+     *          c. a[gt+1…r-1] > p2
+     *          d. a[k…gt]为未确定
+     *      3. 把两个基准交换到最终位置, 三部分分别递归排序;
+     *      4. 中间部分过长(说明有大量与基准相等的元素)时, 先把等于p1和等于p2的元素分别移到两端再递归,
+     *         p1 == p2 时中间部分全部相等, 不需要排序。
+     *
+     *      与单轴快排相比, 每个元素被比较和交换的次数更少, 也更容易利用缓存。
+     *      区间长度小于INSERTION_SORT_THRESHOLD时使用插入排序。
+     */
+
+    /**
+     * 双轴快排 入口方法
+     * @param a 待排数组
+     * @param <K> 数组泛型
+     */
+    public static <K extends Comparable<K>> void dualPivotSort(K[] a){
+        if(a == null || presort(a,0,a.length-1) != PRESORT_NONE) return;
+        dualPivotSort(a,0,a.length-1);
+    }
+
+    /**
+     * 双轴快排 排序区间[l,r]
+     * @param a 待排数组
+     * @param l 左边界
+     * @param r 右边界
+     * @param <K> 泛型类型
+     */
+    public static <K extends Comparable<K>> void dualPivotSort(K[] a,int l,int r){
+        if(r-l < INSERTION_SORT_THRESHOLD){
+            if(l < r) insertSort(a,l,r);
+            return;
+        }
+
+        //5个等距样本 a[e1],a[e2],a[mid],a[e4],a[e5], 步长为区间长度的1/7, 插入排序后取e2,e4作为基准
+        int seventh = ((r-l+1) >> 3) + ((r-l+1) >> 6) + 1;
+        int mid = l + ((r-l)>>1);
+        int e1 = mid - seventh - seventh, e5 = mid + seventh + seventh;
+        for(int i=e1+seventh;i<=e5;i+=seventh){
+            K tmp = a[i];
+            int j=i;
+            for(; j > e1 && less(tmp,a[j-seventh]); j-=seventh) a[j] = a[j-seventh];
+            a[j] = tmp;
+        }
+        swap(a,l,mid-seventh);
+        swap(a,r,mid+seventh);
+        K p1 = a[l], p2 = a[r];
+
+        int lt = l+1, gt = r-1, k = lt;
+        while(k <= gt){
+            if(less(a[k],p1)) swap(a,k++,lt++);
+            else if(less(p2,a[k])){
+                while(k < gt && less(p2,a[gt])) gt--;
+                swap(a,k,gt--);
+                if(less(a[k],p1)) swap(a,k,lt++);
+                k++;
+            }
+            else k++;
+        }
+        swap(a,l,--lt);
+        swap(a,r,++gt);
+
+        dualPivotSort(a,l,lt-1);
+        dualPivotSort(a,gt+1,r);
+        if(!less(p1,p2)) return;
+
+        //中间部分超过区间的一半时, 把等于p1的元素移到左端, 等于p2的元素移到右端
+        int i = lt+1, j = gt-1;
+        if(j - i > (r-l) >> 1){
+            k = i;
+            while(k <= j){
+                if(!less(p1,a[k])) swap(a,k++,i++);
+                else if(!less(a[k],p2)) swap(a,k,j--);
+                else k++;
+            }
+        }
+        dualPivotSort(a,i,j);
+    }
+
+//-------------------------------------内省排序 Introsort----------------------------------------------
+
+    /*
+     * 内省排序(Introsort):
+     *      快排在切分不均匀时(有序数组中混入少量乱序元素、针对三取样构造的输入等)会退化为O(n^2),
+     *      递归深度也会达到O(n), 可能栈溢出。
+     *
+     *      1. 使用advancePartition1切分, 同时记录剩余的递归深度, 初始为 2*floor(log2(n));
+     *      2. 深度用完说明切分一直不均匀, 对当前区间改用堆排序(HeapSort.heapSort), 保证最坏O(n*log(n));
+     *      3. 只对较短的一侧递归, 较长的一侧在循环中继续切分, 调用栈深度不超过O(log(n));
+     *      4. 区间长度小于INSERTION_SORT_THRESHOLD时使用插入排序。
+     */
+
+    /**
+     * 内省排序 入口方法
+     * @param a 待排数组
+     * @param <K> 数组泛型
+     */
+    public static <K extends Comparable<K>> void introSort(K[] a){
+        if(a == null || presort(a,0,a.length-1) != PRESORT_NONE) return;
+        introSort(a,0,a.length-1);
+    }
+
+    /**
+     * 内省排序 排序区间[l,r]
+     * @param a 待排数组
+     * @param l 左边界
+     * @param r 右边界
+     * @param <K> 泛型类型
+     */
+    public static <K extends Comparable<K>> void introSort(K[] a,int l,int r){
+        if(l < r) introSort(a,l,r,depthLimit(r-l+1));
+    }
+
+    /**
+     * @param depth 剩余的递归深度
+     */
+    private static <K extends Comparable<K>> void introSort(K[] a,int l,int r,int depth){
+        while(r-l >= INSERTION_SORT_THRESHOLD){
+            if(depth-- == 0){
+                HeapSort.heapSort(a,l,r);
+                return;
+            }
+            int p = advancePartition1(a,l,r);
+            if(p-l < r-p){
+                introSort(a,l,p-1,depth);
+                l = p+1;
+            }else{
+                introSort(a,p+1,r,depth);
+                r = p-1;
+            }
+        }
+        if(l < r) insertSort(a,l,r);
+    }
+
+    /**
+     * 长度为n的区间允许的递归深度 2*floor(log2(n))
+     */
+    private static int depthLimit(int n){
+        return (31 - Integer.numberOfLeadingZeros(n)) << 1;
+    }
+
+//-------------------------------------并行快排 Fork/Join----------------------------------------------
+
+    /*
+     * 并行快排:
+     *      1. 区间长度 > grain 时, 使用三向切分分区, 小于区和大于区作为两个任务并行排序,
+     *         ForkJoinPool的工作窃取保证分区不均匀时空闲线程也能拿到任务;
+     *      2. 区间长度 <= grain 时, 使用 introSort 串行排序;
+     *      3. 与introSort相同, 记录剩余的切分深度, 用完时对当前区间使用堆排序。
+     *
+     *      基准: 区间较短时使用三取样 median, 区间较长时使用 ninther(九取样, 三个三取样中位数的中位数),
+     *      并行阶段的区间都很大, 更均匀的切分能让两个任务的工作量更接近。
+     */
+
+    //使用ninther选择基准的最小区间长度
+    private static final int NINTHER_THRESHOLD = 40;
+
+    //并行排序的最小子任务长度, 与Arrays.parallelSort一致
+    private static final int MIN_PARALLEL_GRAIN = 1 << 13;
+
+    /**
+     * 并行快排 入口方法, 使用ForkJoinPool.commonPool()
+     * 子任务长度为 max(n / (并行度*4), MIN_PARALLEL_GRAIN)
+     * @param a 待排数组
+     * @param <K> 数组泛型
+     */
+    public static <K extends Comparable<K>> void parallelSort(K[] a){
+        if(a == null) return;
+        int p = ForkJoinPool.getCommonPoolParallelism();
+        parallelSort(a, Math.max(a.length / (p << 2), MIN_PARALLEL_GRAIN));
+    }
+
+    /**
+     * 并行快排
+     * @param a 待排数组
+     * @param grain 子任务长度, 区间长度 <= grain时串行排序
+     * @param <K> 数组泛型
+     */
+    public static <K extends Comparable<K>> void parallelSort(K[] a, int grain){
+        if(a == null) return;
+        if(grain <= INSERTION_SORT_THRESHOLD) throw new IllegalArgumentException("grain must be > " + INSERTION_SORT_THRESHOLD + ": " + grain);
+        if(presort(a,0,a.length-1) != PRESORT_NONE) return;
+        if(a.length <= grain || ForkJoinPool.getCommonPoolParallelism() == 1){
+            introSort(a,0,a.length-1);
+            return;
+        }
+        new QuickSortTask<>(a,0,a.length-1,grain,depthLimit(a.length)).invoke();
+    }
+
+    /**
+     * 并行快排任务 排序区间[l,r]
+     */
+    private static final class QuickSortTask<K extends Comparable<K>> extends CountedTask {
+        private static final long serialVersionUID = 1L;
+
+        private final K[] a;
+        private final int l;
+        private final int r;
+        private final int grain;
+        private final int depth;
+
+        QuickSortTask(K[] a, int l, int r, int grain, int depth){
+            this.a = a;
+            this.l = l;
+            this.r = r;
+            this.grain = grain;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void doCompute() {
+            if(r - l < grain){
+                introSort(a,l,r);
+                return;
+            }
+            //切分一直不均匀, 与introSort相同, 改用堆排序
+            if(depth == 0){
+                HeapSort.heapSort(a,l,r);
+                return;
+            }
+
+            int m = ninther(a,l,r);
+            swap(a,l,m);
+
+            //三向切分, 见threeWaySort
+            int i=l,j=r,k=l+1;
+            K tmp = a[l];
+            while(k<=j){
+                if(SortCounter.ENABLED) SortCounter.compare();
+                int cmp = a[k].compareTo(tmp);
+                if(cmp < 0)swap(a,i++,k++);
+                else if(cmp > 0)swap(a,j--,k);
+                else k++;
+            }
+
+            invokeAll(new QuickSortTask<>(a,l,i-1,grain,depth-1),
+                      new QuickSortTask<>(a,j+1,r,grain,depth-1));
+        }
+    }
+
+    /**
+     * 获取区间[l,r]的基准下标
+     * 区间长度 < NINTHER_THRESHOLD时取 a[l],a[mid],a[r] 的中位数,
+     * 否则取九个等距样本的 ninther: 三组三取样中位数的中位数
+     * @param a
+     * @param l
+     * @param r
+     * @param <K>
+     * @return
+     */
+    public static <K extends Comparable<K>> int ninther(K[] a,int l,int r){
+        int mid = l + ((r-l)>>1);
+        if(r - l + 1 < NINTHER_THRESHOLD) return median(a,l,mid,r);
+
+        int eps = (r - l + 1) >> 3;
+        int m1 = median(a, l, l + eps, l + eps + eps);
+        int m2 = median(a, mid - eps, mid, mid + eps);
+        int m3 = median(a, r - eps - eps, r - eps, r);
+        return median(a, m1, m2, m3);
+    }
+
 //-------------------------------------插排 实现----------------------------------------------
 
     /**
@@ -395,9 +669,660 @@ public class QuickSort extends BaseSort implements SortedCompared{
             int j=i;
             for(; j > l && less(tmp,a[j-1]);j--) a[j] = a[j-1];
             a[j] = tmp;
+            countMoves(i-j+1);
+        }
+    }
+
+//-------------------------------基本类型 int/long/float/double 实现---------------------------------
+
+    /*
+     * 基本类型版本的快排优化(对应advanceQuickSort1): 三取样切分 + 小数组插排,
+     * 直接使用 < 比较, 不需要装箱, 也没有compareTo的虚调用。
+     * float/double 按照Double.compare的约定排序: NaN排在最后, -0.0排在0.0之前。
+     *
+     * 区间版本 advanceQuickSort1(a,l,r) 供BucketSort等排序对子区间使用,
+     * 浮点数的区间版本要求区间内没有NaN, 所以不对外公开。
+     */
+
+    /**
+     * 快排优化 int版本
+     */
+    public static void advanceQuickSort1(int[] a){
+        if(a == null || presort(a,0,a.length-1) != PRESORT_NONE) return;
+        advanceQuickSort1(a,0,a.length-1);
+    }
+
+    /**
+     * 快排优化 long版本
+     */
+    public static void advanceQuickSort1(long[] a){
+        if(a == null || presort(a,0,a.length-1) != PRESORT_NONE) return;
+        advanceQuickSort1(a,0,a.length-1);
+    }
+
+    /**
+     * 快排优化 float版本
+     */
+    public static void advanceQuickSort1(float[] a){
+        if(a == null) return;
+        int r = moveNaNToEnd(a,0,a.length-1);
+        if(presort(a,0,r) == PRESORT_NONE) advanceQuickSort1(a,0,r);
+        sortNegativeZero(a,0,r);
+    }
+
+    /**
+     * 快排优化 double版本
+     */
+    public static void advanceQuickSort1(double[] a){
+        if(a == null) return;
+        int r = moveNaNToEnd(a,0,a.length-1);
+        if(presort(a,0,r) == PRESORT_NONE) advanceQuickSort1(a,0,r);
+        sortNegativeZero(a,0,r);
+    }
+
+    /**
+     * 快排优化 int版本 排序区间[l,r]
+     */
+    static void advanceQuickSort1(int[] a,int l, int r){
+        if(r-l < INSERTION_SORT_THRESHOLD){
+            InsertionSort.insertionSort(a,l,r);
+            return;
+        }
+
+        int partitionIndex = advancePartition1(a,l,r);
+
+        advanceQuickSort1(a,l,partitionIndex-1);
+        advanceQuickSort1(a,partitionIndex+1,r);
+    }
+
+    /**
+     * 标准快排的切分算法 int版本 切分区间[l,r]
+     */
+    private static int advancePartition1(int[] a,int l, int r){
+        int i=l, j= r+1, m = median(a, l, l+((r-l)>>1), r);
+        swap(a,l,m);
+
+        int tmp = a[l];
+        //当a[l]为 数组区间[l,r]的最大元素时
+        while(a[++i] < tmp){
+            if(i==r){
+                swap(a,l,r);
+                return r;
+            }
+        }
+
+        //当a[l]为 数组区间[l,r]的最小元素时
+        while(tmp < a[--j]){
+            if(j==l) return l;
+        }
+
+        while(i<j){
+            swap(a,i,j);
+            while(a[++i] < tmp);
+            while(tmp < a[--j]);
+        }
+
+        swap(a,l,j);
+
+        return j;
+    }
+
+    /**
+     * 获取 a[l],a[mid],a[r]的中位数 int版本
+     */
+    public static int median(int[] a,int l,int mid,int r){
+        return a[l] < a[r] ?
+                (a[l] < a[mid] ? (a[mid] < a[r] ? mid : r) : l):
+                (a[r] < a[mid] ? (a[mid] < a[l] ? mid : l) : r);
+    }
+
+    /**
+     * 快排优化 long版本 排序区间[l,r]
+     */
+    static void advanceQuickSort1(long[] a,int l, int r){
+        if(r-l < INSERTION_SORT_THRESHOLD){
+            InsertionSort.insertionSort(a,l,r);
+            return;
+        }
+
+        int partitionIndex = advancePartition1(a,l,r);
+
+        advanceQuickSort1(a,l,partitionIndex-1);
+        advanceQuickSort1(a,partitionIndex+1,r);
+    }
+
+    /**
+     * 标准快排的切分算法 long版本 切分区间[l,r]
+     */
+    private static int advancePartition1(long[] a,int l, int r){
+        int i=l, j= r+1, m = median(a, l, l+((r-l)>>1), r);
+        swap(a,l,m);
+
+        long tmp = a[l];
+        //当a[l]为 数组区间[l,r]的最大元素时
+        while(a[++i] < tmp){
+            if(i==r){
+                swap(a,l,r);
+                return r;
+            }
+        }
+
+        //当a[l]为 数组区间[l,r]的最小元素时
+        while(tmp < a[--j]){
+            if(j==l) return l;
+        }
+
+        while(i<j){
+            swap(a,i,j);
+            while(a[++i] < tmp);
+            while(tmp < a[--j]);
+        }
+
+        swap(a,l,j);
+
+        return j;
+    }
+
+    /**
+     * 获取 a[l],a[mid],a[r]的中位数 long版本
+     */
+    public static int median(long[] a,int l,int mid,int r){
+        return a[l] < a[r] ?
+                (a[l] < a[mid] ? (a[mid] < a[r] ? mid : r) : l):
+                (a[r] < a[mid] ? (a[mid] < a[l] ? mid : l) : r);
+    }
+
+    /**
+     * 快排优化 float版本 排序区间[l,r]
+     */
+    static void advanceQuickSort1(float[] a,int l, int r){
+        if(r-l < INSERTION_SORT_THRESHOLD){
+            InsertionSort.insertionSort(a,l,r);
+            return;
+        }
+
+        int partitionIndex = advancePartition1(a,l,r);
+
+        advanceQuickSort1(a,l,partitionIndex-1);
+        advanceQuickSort1(a,partitionIndex+1,r);
+    }
+
+    /**
+     * 标准快排的切分算法 float版本 切分区间[l,r]
+     */
+    private static int advancePartition1(float[] a,int l, int r){
+        int i=l, j= r+1, m = median(a, l, l+((r-l)>>1), r);
+        swap(a,l,m);
+
+        float tmp = a[l];
+        //当a[l]为 数组区间[l,r]的最大元素时
+        while(a[++i] < tmp){
+            if(i==r){
+                swap(a,l,r);
+                return r;
+            }
+        }
+
+        //当a[l]为 数组区间[l,r]的最小元素时
+        while(tmp < a[--j]){
+            if(j==l) return l;
+        }
+
+        while(i<j){
+            swap(a,i,j);
+            while(a[++i] < tmp);
+            while(tmp < a[--j]);
+        }
+
+        swap(a,l,j);
+
+        return j;
+    }
+
+    /**
+     * 获取 a[l],a[mid],a[r]的中位数 float版本
+     */
+    public static int median(float[] a,int l,int mid,int r){
+        return a[l] < a[r] ?
+                (a[l] < a[mid] ? (a[mid] < a[r] ? mid : r) : l):
+                (a[r] < a[mid] ? (a[mid] < a[l] ? mid : l) : r);
+    }
+
+    /**
+     * 快排优化 double版本 排序区间[l,r]
+     */
+    static void advanceQuickSort1(double[] a,int l, int r){
+        if(r-l < INSERTION_SORT_THRESHOLD){
+            InsertionSort.insertionSort(a,l,r);
+            return;
+        }
+
+        int partitionIndex = advancePartition1(a,l,r);
+
+        advanceQuickSort1(a,l,partitionIndex-1);
+        advanceQuickSort1(a,partitionIndex+1,r);
+    }
+
+    /**
+     * 标准快排的切分算法 double版本 切分区间[l,r]
+     */
+    private static int advancePartition1(double[] a,int l, int r){
+        int i=l, j= r+1, m = median(a, l, l+((r-l)>>1), r);
+        swap(a,l,m);
+
+        double tmp = a[l];
+        //当a[l]为 数组区间[l,r]的最大元素时
+        while(a[++i] < tmp){
+            if(i==r){
+                swap(a,l,r);
+                return r;
+            }
+        }
+
+        //当a[l]为 数组区间[l,r]的最小元素时
+        while(tmp < a[--j]){
+            if(j==l) return l;
+        }
+
+        while(i<j){
+            swap(a,i,j);
+            while(a[++i] < tmp);
+            while(tmp < a[--j]);
+        }
+
+        swap(a,l,j);
+
+        return j;
+    }
+
+    /**
+     * 获取 a[l],a[mid],a[r]的中位数 double版本
+     */
+    public static int median(double[] a,int l,int mid,int r){
+        return a[l] < a[r] ?
+                (a[l] < a[mid] ? (a[mid] < a[r] ? mid : r) : l):
+                (a[r] < a[mid] ? (a[mid] < a[l] ? mid : l) : r);
+    }
+
+    /**
+     * 双轴快排 int版本
+     */
+    public static void dualPivotSort(int[] a){
+        if(a == null || presort(a,0,a.length-1) != PRESORT_NONE) return;
+        dualPivotSort(a,0,a.length-1);
+    }
+
+    /**
+     * 双轴快排 long版本
+     */
+    public static void dualPivotSort(long[] a){
+        if(a == null || presort(a,0,a.length-1) != PRESORT_NONE) return;
+        dualPivotSort(a,0,a.length-1);
+    }
+
+    /**
+     * 双轴快排 float版本
+     */
+    public static void dualPivotSort(float[] a){
+        if(a == null) return;
+        int r = moveNaNToEnd(a,0,a.length-1);
+        if(presort(a,0,r) == PRESORT_NONE) dualPivotSort(a,0,r);
+        sortNegativeZero(a,0,r);
+    }
+
+    /**
+     * 双轴快排 double版本
+     */
+    public static void dualPivotSort(double[] a){
+        if(a == null) return;
+        int r = moveNaNToEnd(a,0,a.length-1);
+        if(presort(a,0,r) == PRESORT_NONE) dualPivotSort(a,0,r);
+        sortNegativeZero(a,0,r);
+    }
+
+    /**
+     * 双轴快排 int版本 排序区间[l,r]
+     */
+    private static void dualPivotSort(int[] a,int l, int r){
+        if(r-l < INSERTION_SORT_THRESHOLD){
+            InsertionSort.insertionSort(a,l,r);
+            return;
+        }
+
+        int seventh = ((r-l+1) >> 3) + ((r-l+1) >> 6) + 1;
+        int mid = l + ((r-l)>>1);
+        int e1 = mid - seventh - seventh, e5 = mid + seventh + seventh;
+        for(int i=e1+seventh;i<=e5;i+=seventh){
+            int tmp = a[i];
+            int j=i;
+            for(; j > e1 && tmp < a[j-seventh]; j-=seventh) a[j] = a[j-seventh];
+            a[j] = tmp;
+        }
+        swap(a,l,mid-seventh);
+        swap(a,r,mid+seventh);
+        int p1 = a[l], p2 = a[r];
+
+        int lt = l+1, gt = r-1, k = lt;
+        while(k <= gt){
+            if(a[k] < p1) swap(a,k++,lt++);
+            else if(a[k] > p2){
+                while(k < gt && a[gt] > p2) gt--;
+                swap(a,k,gt--);
+                if(a[k] < p1) swap(a,k,lt++);
+                k++;
+            }
+            else k++;
+        }
+        swap(a,l,--lt);
+        swap(a,r,++gt);
+
+        dualPivotSort(a,l,lt-1);
+        dualPivotSort(a,gt+1,r);
+        if(p1 == p2) return;
+
+        int i = lt+1, j = gt-1;
+        if(j - i > (r-l) >> 1){
+            k = i;
+            while(k <= j){
+                if(a[k] == p1) swap(a,k++,i++);
+                else if(a[k] == p2) swap(a,k,j--);
+                else k++;
+            }
         }
+        dualPivotSort(a,i,j);
     }
 
+    /**
+     * 双轴快排 long版本 排序区间[l,r]
+     */
+    private static void dualPivotSort(long[] a,int l, int r){
+        if(r-l < INSERTION_SORT_THRESHOLD){
+            InsertionSort.insertionSort(a,l,r);
+            return;
+        }
+
+        int seventh = ((r-l+1) >> 3) + ((r-l+1) >> 6) + 1;
+        int mid = l + ((r-l)>>1);
+        int e1 = mid - seventh - seventh, e5 = mid + seventh + seventh;
+        for(int i=e1+seventh;i<=e5;i+=seventh){
+            long tmp = a[i];
+            int j=i;
+            for(; j > e1 && tmp < a[j-seventh]; j-=seventh) a[j] = a[j-seventh];
+            a[j] = tmp;
+        }
+        swap(a,l,mid-seventh);
+        swap(a,r,mid+seventh);
+        long p1 = a[l], p2 = a[r];
+
+        int lt = l+1, gt = r-1, k = lt;
+        while(k <= gt){
+            if(a[k] < p1) swap(a,k++,lt++);
+            else if(a[k] > p2){
+                while(k < gt && a[gt] > p2) gt--;
+                swap(a,k,gt--);
+                if(a[k] < p1) swap(a,k,lt++);
+                k++;
+            }
+            else k++;
+        }
+        swap(a,l,--lt);
+        swap(a,r,++gt);
+
+        dualPivotSort(a,l,lt-1);
+        dualPivotSort(a,gt+1,r);
+        if(p1 == p2) return;
+
+        int i = lt+1, j = gt-1;
+        if(j - i > (r-l) >> 1){
+            k = i;
+            while(k <= j){
+                if(a[k] == p1) swap(a,k++,i++);
+                else if(a[k] == p2) swap(a,k,j--);
+                else k++;
+            }
+        }
+        dualPivotSort(a,i,j);
+    }
+
+    /**
+     * 双轴快排 float版本 排序区间[l,r]
+     */
+    private static void dualPivotSort(float[] a,int l, int r){
+        if(r-l < INSERTION_SORT_THRESHOLD){
+            InsertionSort.insertionSort(a,l,r);
+            return;
+        }
+
+        int seventh = ((r-l+1) >> 3) + ((r-l+1) >> 6) + 1;
+        int mid = l + ((r-l)>>1);
+        int e1 = mid - seventh - seventh, e5 = mid + seventh + seventh;
+        for(int i=e1+seventh;i<=e5;i+=seventh){
+            float tmp = a[i];
+            int j=i;
+            for(; j > e1 && tmp < a[j-seventh]; j-=seventh) a[j] = a[j-seventh];
+            a[j] = tmp;
+        }
+        swap(a,l,mid-seventh);
+        swap(a,r,mid+seventh);
+        float p1 = a[l], p2 = a[r];
+
+        int lt = l+1, gt = r-1, k = lt;
+        while(k <= gt){
+            if(a[k] < p1) swap(a,k++,lt++);
+            else if(a[k] > p2){
+                while(k < gt && a[gt] > p2) gt--;
+                swap(a,k,gt--);
+                if(a[k] < p1) swap(a,k,lt++);
+                k++;
+            }
+            else k++;
+        }
+        swap(a,l,--lt);
+        swap(a,r,++gt);
+
+        dualPivotSort(a,l,lt-1);
+        dualPivotSort(a,gt+1,r);
+        if(p1 == p2) return;
+
+        int i = lt+1, j = gt-1;
+        if(j - i > (r-l) >> 1){
+            k = i;
+            while(k <= j){
+                if(a[k] == p1) swap(a,k++,i++);
+                else if(a[k] == p2) swap(a,k,j--);
+                else k++;
+            }
+        }
+        dualPivotSort(a,i,j);
+    }
+
+    /**
+     * 双轴快排 double版本 排序区间[l,r]
+     */
+    private static void dualPivotSort(double[] a,int l, int r){
+        if(r-l < INSERTION_SORT_THRESHOLD){
+            InsertionSort.insertionSort(a,l,r);
+            return;
+        }
+
+        int seventh = ((r-l+1) >> 3) + ((r-l+1) >> 6) + 1;
+        int mid = l + ((r-l)>>1);
+        int e1 = mid - seventh - seventh, e5 = mid + seventh + seventh;
+        for(int i=e1+seventh;i<=e5;i+=seventh){
+            double tmp = a[i];
+            int j=i;
+            for(; j > e1 && tmp < a[j-seventh]; j-=seventh) a[j] = a[j-seventh];
+            a[j] = tmp;
+        }
+        swap(a,l,mid-seventh);
+        swap(a,r,mid+seventh);
+        double p1 = a[l], p2 = a[r];
+
+        int lt = l+1, gt = r-1, k = lt;
+        while(k <= gt){
+            if(a[k] < p1) swap(a,k++,lt++);
+            else if(a[k] > p2){
+                while(k < gt && a[gt] > p2) gt--;
+                swap(a,k,gt--);
+                if(a[k] < p1) swap(a,k,lt++);
+                k++;
+            }
+            else k++;
+        }
+        swap(a,l,--lt);
+        swap(a,r,++gt);
+
+        dualPivotSort(a,l,lt-1);
+        dualPivotSort(a,gt+1,r);
+        if(p1 == p2) return;
+
+        int i = lt+1, j = gt-1;
+        if(j - i > (r-l) >> 1){
+            k = i;
+            while(k <= j){
+                if(a[k] == p1) swap(a,k++,i++);
+                else if(a[k] == p2) swap(a,k,j--);
+                else k++;
+            }
+        }
+        dualPivotSort(a,i,j);
+    }
+
+    /**
+     * 内省排序 int版本
+     */
+    public static void introSort(int[] a){
+        if(a == null || presort(a,0,a.length-1) != PRESORT_NONE) return;
+        introSort(a,0,a.length-1);
+    }
+
+    /**
+     * 内省排序 long版本
+     */
+    public static void introSort(long[] a){
+        if(a == null || presort(a,0,a.length-1) != PRESORT_NONE) return;
+        introSort(a,0,a.length-1);
+    }
+
+    /**
+     * 内省排序 float版本
+     */
+    public static void introSort(float[] a){
+        if(a == null) return;
+        int r = moveNaNToEnd(a,0,a.length-1);
+        if(presort(a,0,r) == PRESORT_NONE) introSort(a,0,r);
+        sortNegativeZero(a,0,r);
+    }
+
+    /**
+     * 内省排序 double版本
+     */
+    public static void introSort(double[] a){
+        if(a == null) return;
+        int r = moveNaNToEnd(a,0,a.length-1);
+        if(presort(a,0,r) == PRESORT_NONE) introSort(a,0,r);
+        sortNegativeZero(a,0,r);
+    }
+
+    /**
+     * 内省排序 int版本 排序区间[l,r]
+     */
+    static void introSort(int[] a,int l,int r){
+        if(l < r) introSort(a,l,r,depthLimit(r-l+1));
+    }
+
+    private static void introSort(int[] a,int l,int r,int depth){
+        while(r-l >= INSERTION_SORT_THRESHOLD){
+            if(depth-- == 0){
+                HeapSort.heapSort(a,l,r);
+                return;
+            }
+            int p = advancePartition1(a,l,r);
+            if(p-l < r-p){
+                introSort(a,l,p-1,depth);
+                l = p+1;
+            }else{
+                introSort(a,p+1,r,depth);
+                r = p-1;
+            }
+        }
+        InsertionSort.insertionSort(a,l,r);
+    }
+
+    /**
+     * 内省排序 long版本 排序区间[l,r]
+     */
+    static void introSort(long[] a,int l,int r){
+        if(l < r) introSort(a,l,r,depthLimit(r-l+1));
+    }
+
+    private static void introSort(long[] a,int l,int r,int depth){
+        while(r-l >= INSERTION_SORT_THRESHOLD){
+            if(depth-- == 0){
+                HeapSort.heapSort(a,l,r);
+                return;
+            }
+            int p = advancePartition1(a,l,r);
+            if(p-l < r-p){
+                introSort(a,l,p-1,depth);
+                l = p+1;
+            }else{
+                introSort(a,p+1,r,depth);
+                r = p-1;
+            }
+        }
+        InsertionSort.insertionSort(a,l,r);
+    }
+
+    /**
+     * 内省排序 float版本 排序区间[l,r]
+     */
+    static void introSort(float[] a,int l,int r){
+        if(l < r) introSort(a,l,r,depthLimit(r-l+1));
+    }
+
+    private static void introSort(float[] a,int l,int r,int depth){
+        while(r-l >= INSERTION_SORT_THRESHOLD){
+            if(depth-- == 0){
+                HeapSort.heapSort(a,l,r);
+                return;
+            }
+            int p = advancePartition1(a,l,r);
+            if(p-l < r-p){
+                introSort(a,l,p-1,depth);
+                l = p+1;
+            }else{
+                introSort(a,p+1,r,depth);
+                r = p-1;
+            }
+        }
+        InsertionSort.insertionSort(a,l,r);
+    }
+
+    /**
+     * 内省排序 double版本 排序区间[l,r]
+     */
+    static void introSort(double[] a,int l,int r){
+        if(l < r) introSort(a,l,r,depthLimit(r-l+1));
+    }
+
+    private static void introSort(double[] a,int l,int r,int depth){
+        while(r-l >= INSERTION_SORT_THRESHOLD){
+            if(depth-- == 0){
+                HeapSort.heapSort(a,l,r);
+                return;
+            }
+            int p = advancePartition1(a,l,r);
+            if(p-l < r-p){
+                introSort(a,l,p-1,depth);
+                l = p+1;
+            }else{
+                introSort(a,p+1,r,depth);
+                r = p-1;
+            }
+        }
+        InsertionSort.insertionSort(a,l,r);
+    }
 
     /**
      * 测试规模：5000000 五百万
@@ -405,6 +1330,8 @@ public class QuickSort extends BaseSort implements SortedCompared{
      * advancedSort性能最优(因为优化的最好)
      * threeWaySort处理重复数组的能力与advancedSort几乎相同, 且优于普通的快排
      * 对于sort2系列, 由于采用的是挖坑法, 且没有对重复子数组进行特殊处理, 所以很容易陷入N^2复杂度!
+     * dualPivotSort处理重复数组的增量(1.66s)少于threeWaySort(2.17s), 多于advanceQuickSort1(1.29s)
+     * (同一次单核运行中的对比, 与上面其他结果不是同一台机器)
      *
      *
      * 测试结果：
@@ -422,6 +1349,9 @@ public class QuickSort extends BaseSort implements SortedCompared{
      *
      * threeWaySort method[random]:(4.08 seconds)
      * threeWaySort method[random+duplicate]:(6.16 seconds)
+     *
+     * dualPivotSort method[random]:(4.21 seconds)
+     * dualPivotSort method[random+duplicate]:(5.87 seconds)
      */
     @Override
     public void sortingComparison() {
@@ -431,6 +1361,7 @@ public class QuickSort extends BaseSort implements SortedCompared{
         Integer[] a13 = Arrays.copyOf(a11, a11.length);
         Integer[] a14 = Arrays.copyOf(a11, a11.length);
         Integer[] a15 = Arrays.copyOf(a11, a11.length);
+        Integer[] a16 = Arrays.copyOf(a11, a11.length);
 
         // 大量重复数组
         Integer[] a21 = RandomArrayUtil.getRandomBoxedIntArray(0, 1000, 5000000);
@@ -438,6 +1369,7 @@ public class QuickSort extends BaseSort implements SortedCompared{
         Integer[] a23 = Arrays.copyOf(a21, a21.length);
         Integer[] a24 = Arrays.copyOf(a21, a21.length);
         Integer[] a25 = Arrays.copyOf(a21, a21.length);
+        Integer[] a26 = Arrays.copyOf(a21, a21.length);
 
         System.out.println("Array created!");
 
@@ -480,5 +1412,13 @@ public class QuickSort extends BaseSort implements SortedCompared{
         threeWaySort(a25);
         if(isSorted(a25))System.out.println(String.format(formatStringWithDuplicate, "threeWaySort", stopWatch.elapsedTime()));
         System.out.println();
+
+        // 双轴快排 dualPivotSort
+        stopWatch = new StopWatch();
+        dualPivotSort(a16);
+        if(isSorted(a16))System.out.println(String.format(formatStringWithRandom, "dualPivotSort", stopWatch.elapsedTime()));
+        dualPivotSort(a26);
+        if(isSorted(a26))System.out.println(String.format(formatStringWithDuplicate, "dualPivotSort", stopWatch.elapsedTime()));
+        System.out.println();
     }
 }
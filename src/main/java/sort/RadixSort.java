@@ -4,7 +4,10 @@ import util.RandomArrayUtil;
 import util.StopWatch;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * @className: RadixSort
@@ -38,6 +41,10 @@ import java.util.List;
  *                  基数排序的空间复杂度为O(n+k)，其中k为桶的数量。
  *                  一般来说n>>k，因此额外空间需要大概n个左右。
  *
+ *              lsdRadixSort: 按二进制位(每8位为一位)的LSD基数排序，支持int/long和负数，适合大批量整数ID排序
+ *              parallelLsdRadixSort: 多线程版本，每个线程统计各自的直方图，并行分配
+ *              msdRadixSort: 原地的MSD基数排序(American flag sort)，支持int/long/String，不需要O(n)的辅助数组
+ *
  * @author: ZSZ
  * @date: 2020/4/28 17:23
  */
@@ -141,6 +148,589 @@ public class RadixSort extends BaseSort implements SortedCompared{
     }
 
 
+//------------------------------------二进制位 LSD 基数排序--------------------------------------
+
+    /*
+     * radixSort1/radixSort2 按十进制位排序, 每次取位都要做除法和取模, 只能处理非负数。
+     * 这里按二进制位排序, 每 8 位(一个字节)作为一位, 共 256 个桶:
+     *      1. 取位只需要移位和按位与;
+     *      2. 负数: 把符号位取反(异或MIN_VALUE), 负数的最高位变为0, 正数变为1, 按无符号数排序即可;
+     *      3. 一次遍历统计出所有位的计数(直方图), 不需要每一趟重新统计;
+     *      4. 如果所有元素在某一位上的值都相同, 这一趟分配不会改变顺序, 直接跳过;
+     *      5. 只使用一个辅助数组, 每一趟在原数组和辅助数组之间交替分配, 最后需要时复制回原数组。
+     *
+     *      int 最多 4 趟, long 最多 8 趟。
+     */
+
+    //每一位的二进制位数
+    private static final int RADIX_BITS = 8;
+
+    //桶的个数
+    private static final int RADIX = 1 << RADIX_BITS;
+
+    private static final int RADIX_MASK = RADIX - 1;
+
+    //区间长度小于该值时使用插入排序
+    private static final int LSD_INSERTION_SORT_THRESHOLD = 64;
+
+    /**
+     * 二进制位 LSD 基数排序 入口函数
+     * @param a 待排数组
+     */
+    public static void lsdRadixSort(int[] a){
+        if(a == null) return;
+        lsdRadixSort(a,0,a.length-1);
+    }
+
+    /**
+     * 二进制位 LSD 基数排序 排序区间[l,r]
+     * @param a 待排数组
+     * @param l 左边界
+     * @param r 右边界
+     */
+    public static void lsdRadixSort(int[] a,int l,int r){
+        if(a == null || l >= r) return;
+        if(r - l < LSD_INSERTION_SORT_THRESHOLD){
+            InsertionSort.insertionSort(a,l,r);
+            return;
+        }
+
+        int n = r - l + 1;
+        int passes = Integer.SIZE / RADIX_BITS;
+
+        //一次遍历统计所有位的计数
+        int[][] count = new int[passes][RADIX];
+        for(int i=l;i<=r;i++){
+            int key = a[i] ^ Integer.MIN_VALUE;
+            count[0][key & RADIX_MASK]++;
+            count[1][(key >>> 8) & RADIX_MASK]++;
+            count[2][(key >>> 16) & RADIX_MASK]++;
+            count[3][key >>> 24]++;
+        }
+
+        int[] src = a, dst = new int[n];
+        int srcLo = l, dstLo = 0;
+        for(int p=0;p<passes;p++){
+            int[] c = count[p];
+            int shift = p * RADIX_BITS;
+
+            //所有元素在这一位上都相同，跳过
+            if(c[((src[srcLo] ^ Integer.MIN_VALUE) >>> shift) & RADIX_MASK] == n) continue;
+
+            //c[d] 变为数字d在dst中的起始位置
+            int sum = dstLo;
+            for(int d=0;d<RADIX;d++){
+                int t = c[d];
+                c[d] = sum;
+                sum += t;
+            }
+
+            //从前往后分配，保证稳定
+            for(int i=srcLo,end=srcLo+n;i<end;i++){
+                int v = src[i];
+                dst[c[((v ^ Integer.MIN_VALUE) >>> shift) & RADIX_MASK]++] = v;
+            }
+
+            //交换原数组和辅助数组
+            int[] t = src; src = dst; dst = t;
+            int tl = srcLo; srcLo = dstLo; dstLo = tl;
+        }
+
+        //结果在辅助数组中，复制回原数组
+        if(src != a) System.arraycopy(src,srcLo,a,l,n);
+    }
+
+    /**
+     * 二进制位 LSD 基数排序 入口函数 long版本
+     * @param a 待排数组
+     */
+    public static void lsdRadixSort(long[] a){
+        if(a == null) return;
+        lsdRadixSort(a,0,a.length-1);
+    }
+
+    /**
+     * 二进制位 LSD 基数排序 long版本 排序区间[l,r]
+     * @param a 待排数组
+     * @param l 左边界
+     * @param r 右边界
+     */
+    public static void lsdRadixSort(long[] a,int l,int r){
+        if(a == null || l >= r) return;
+        if(r - l < LSD_INSERTION_SORT_THRESHOLD){
+            InsertionSort.insertionSort(a,l,r);
+            return;
+        }
+
+        int n = r - l + 1;
+        int passes = Long.SIZE / RADIX_BITS;
+
+        //一次遍历统计所有位的计数
+        int[][] count = new int[passes][RADIX];
+        for(int i=l;i<=r;i++){
+            long key = a[i] ^ Long.MIN_VALUE;
+            for(int p=0;p<passes;p++){
+                count[p][(int)(key >>> (p * RADIX_BITS)) & RADIX_MASK]++;
+            }
+        }
+
+        long[] src = a, dst = new long[n];
+        int srcLo = l, dstLo = 0;
+        for(int p=0;p<passes;p++){
+            int[] c = count[p];
+            int shift = p * RADIX_BITS;
+
+            //所有元素在这一位上都相同，跳过
+            if(c[(int)((src[srcLo] ^ Long.MIN_VALUE) >>> shift) & RADIX_MASK] == n) continue;
+
+            //c[d] 变为数字d在dst中的起始位置
+            int sum = dstLo;
+            for(int d=0;d<RADIX;d++){
+                int t = c[d];
+                c[d] = sum;
+                sum += t;
+            }
+
+            //从前往后分配，保证稳定
+            for(int i=srcLo,end=srcLo+n;i<end;i++){
+                long v = src[i];
+                dst[c[(int)((v ^ Long.MIN_VALUE) >>> shift) & RADIX_MASK]++] = v;
+            }
+
+            //交换原数组和辅助数组
+            long[] t = src; src = dst; dst = t;
+            int tl = srcLo; srcLo = dstLo; dstLo = tl;
+        }
+
+        //结果在辅助数组中，复制回原数组
+        if(src != a) System.arraycopy(src,srcLo,a,l,n);
+    }
+
+//------------------------------------并行 LSD 基数排序--------------------------------------
+
+    /*
+     * 在 lsdRadixSort 的基础上按线程数把数组分成若干段, 每一趟分三步:
+     *      1. 各线程并行统计本段在这一位上的计数(线程私有的直方图);
+     *      2. 合并: 按 (数字, 段号) 的顺序计算前缀和, 得到每个线程每个数字在输出数组中的起始位置,
+     *         同一数字中前面段的元素排在前面, 保证稳定;
+     *      3. 各线程并行把本段元素分配到输出数组, 写入的位置互不重叠, 不需要加锁。
+     *
+     *      与 lsdRadixSort 一样, 所有元素在某一位上相同时跳过这一趟, 只使用一个辅助数组。
+     */
+
+    //每个线程最少处理的元素个数，元素太少时线程调度的开销大于收益
+    private static final int MIN_PARALLEL_RADIX_CHUNK = 1 << 16;
+
+    /**
+     * 并行 LSD 基数排序 int版本 入口函数, 使用ForkJoinPool.commonPool()
+     * @param a 待排数组
+     */
+    public static void parallelLsdRadixSort(int[] a){
+        parallelLsdRadixSort(a, ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    /**
+     * 并行 LSD 基数排序 int版本
+     * @param a 待排数组
+     * @param parallelism 分段数, 即同时处理的线程数
+     */
+    public static void parallelLsdRadixSort(int[] a,int parallelism){
+        if(a == null) return;
+        if(parallelism < 1) throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+
+        int n = a.length;
+        int chunks = Math.min(parallelism, n / MIN_PARALLEL_RADIX_CHUNK);
+        if(chunks <= 1){
+            lsdRadixSort(a);
+            return;
+        }
+
+        //第t段为 [bounds[t], bounds[t+1])
+        int[] bounds = new int[chunks+1];
+        for(int t=0;t<=chunks;t++) bounds[t] = (int)((long)n * t / chunks);
+
+        ForkJoinPool.commonPool().invoke(ForkJoinTask.adapt(() -> {
+            int[][] count = new int[chunks][RADIX];
+            int[] src = a, dst = new int[n];
+            for(int p=0;p<Integer.SIZE / RADIX_BITS;p++){
+                int shift = p * RADIX_BITS;
+                int[] from = src, to = dst;
+
+                //1. 各线程统计本段的计数
+                ForkJoinTask.invokeAll(chunkTasks(chunks, t -> {
+                    int[] c = count[t];
+                    Arrays.fill(c,0);
+                    for(int i=bounds[t];i<bounds[t+1];i++) c[((from[i] ^ Integer.MIN_VALUE) >>> shift) & RADIX_MASK]++;
+                }));
+
+                //2. 合并，所有元素在这一位上都相同时跳过
+                int first = ((from[0] ^ Integer.MIN_VALUE) >>> shift) & RADIX_MASK, same = 0;
+                for(int t=0;t<chunks;t++) same += count[t][first];
+                if(same == n) continue;
+
+                int sum = 0;
+                for(int d=0;d<RADIX;d++){
+                    for(int t=0;t<chunks;t++){
+                        int c = count[t][d];
+                        count[t][d] = sum;
+                        sum += c;
+                    }
+                }
+
+                //3. 各线程分配本段元素，写入位置互不重叠
+                ForkJoinTask.invokeAll(chunkTasks(chunks, t -> {
+                    int[] c = count[t];
+                    for(int i=bounds[t];i<bounds[t+1];i++){
+                        int v = from[i];
+                        to[c[((v ^ Integer.MIN_VALUE) >>> shift) & RADIX_MASK]++] = v;
+                    }
+                }));
+
+                src = to;
+                dst = from;
+            }
+
+            //结果在辅助数组中，复制回原数组
+            if(src != a) System.arraycopy(src,0,a,0,n);
+        }));
+    }
+
+    /**
+     * 并行 LSD 基数排序 long版本 入口函数, 使用ForkJoinPool.commonPool()
+     * @param a 待排数组
+     */
+    public static void parallelLsdRadixSort(long[] a){
+        parallelLsdRadixSort(a, ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    /**
+     * 并行 LSD 基数排序 long版本
+     * @param a 待排数组
+     * @param parallelism 分段数, 即同时处理的线程数
+     */
+    public static void parallelLsdRadixSort(long[] a,int parallelism){
+        if(a == null) return;
+        if(parallelism < 1) throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+
+        int n = a.length;
+        int chunks = Math.min(parallelism, n / MIN_PARALLEL_RADIX_CHUNK);
+        if(chunks <= 1){
+            lsdRadixSort(a);
+            return;
+        }
+
+        //第t段为 [bounds[t], bounds[t+1])
+        int[] bounds = new int[chunks+1];
+        for(int t=0;t<=chunks;t++) bounds[t] = (int)((long)n * t / chunks);
+
+        ForkJoinPool.commonPool().invoke(ForkJoinTask.adapt(() -> {
+            int[][] count = new int[chunks][RADIX];
+            long[] src = a, dst = new long[n];
+            for(int p=0;p<Long.SIZE / RADIX_BITS;p++){
+                int shift = p * RADIX_BITS;
+                long[] from = src, to = dst;
+
+                //1. 各线程统计本段的计数
+                ForkJoinTask.invokeAll(chunkTasks(chunks, t -> {
+                    int[] c = count[t];
+                    Arrays.fill(c,0);
+                    for(int i=bounds[t];i<bounds[t+1];i++) c[(int)((from[i] ^ Long.MIN_VALUE) >>> shift) & RADIX_MASK]++;
+                }));
+
+                //2. 合并，所有元素在这一位上都相同时跳过
+                int first = (int)((from[0] ^ Long.MIN_VALUE) >>> shift) & RADIX_MASK, same = 0;
+                for(int t=0;t<chunks;t++) same += count[t][first];
+                if(same == n) continue;
+
+                int sum = 0;
+                for(int d=0;d<RADIX;d++){
+                    for(int t=0;t<chunks;t++){
+                        int c = count[t][d];
+                        count[t][d] = sum;
+                        sum += c;
+                    }
+                }
+
+                //3. 各线程分配本段元素，写入位置互不重叠
+                ForkJoinTask.invokeAll(chunkTasks(chunks, t -> {
+                    int[] c = count[t];
+                    for(int i=bounds[t];i<bounds[t+1];i++){
+                        long v = from[i];
+                        to[c[(int)((v ^ Long.MIN_VALUE) >>> shift) & RADIX_MASK]++] = v;
+                    }
+                }));
+
+                src = to;
+                dst = from;
+            }
+
+            //结果在辅助数组中，复制回原数组
+            if(src != a) System.arraycopy(src,0,a,0,n);
+        }));
+    }
+
+//------------------------------------MSD 基数排序(American flag sort)--------------------------------------
+
+    /*
+     * LSD 基数排序每一趟都要一个长度为n的辅助数组, MSD 的 American flag sort 是原地排序:
+     *      1. 按最高位统计每个桶的元素个数, 计算出每个桶在数组中的区间;
+     *      2. 原地置换: 依次处理每个桶中还没有归位的元素, 把它换到它所属的桶的下一个空位,
+     *         换回来的元素继续处理, 直到当前位置放入属于这个桶的元素 (循环置换, 每个元素最多移动一次);
+     *      3. 对每个桶递归处理下一位, 桶内元素较少时使用插入排序。
+     *
+     *      额外空间只有每层的计数数组, 与n无关, 适合数组大小接近堆上限的情况。
+     *      MSD 不稳定。
+     *
+     *      String 按字节排序: 每个char拆成高字节和低字节两位, 与String.compareTo的顺序一致,
+     *      字符串结束视为比任何字节都小的一位(0号桶)。
+     *      所有字符串在当前字节相同时循环前进到下一个字节, 不递归; 递归超过MSD_STRING_MAX_DEPTH层时
+     *      剩下的后缀改用MyTimSort, 递归深度与字符串长度无关。
+     */
+
+    //桶内元素个数不超过该值时使用插入排序
+    private static final int MSD_INSERTION_SORT_THRESHOLD = 32;
+
+    //String版本递归的最大层数, 超过后剩下的后缀使用MyTimSort, 避免栈溢出
+    private static final int MSD_STRING_MAX_DEPTH = 64;
+
+    /**
+     * MSD 基数排序(American flag sort) int版本 入口函数
+     * @param a 待排数组
+     */
+    public static void msdRadixSort(int[] a){
+        if(a == null) return;
+        msdRadixSort(a,0,a.length-1);
+    }
+
+    /**
+     * MSD 基数排序(American flag sort) int版本 排序区间[l,r]
+     * @param a 待排数组
+     * @param l 左边界
+     * @param r 右边界
+     */
+    public static void msdRadixSort(int[] a,int l,int r){
+        if(a == null || l >= r) return;
+        int levels = Integer.SIZE / RADIX_BITS;
+        americanFlagSort(a,l,r+1,Integer.SIZE - RADIX_BITS,new int[levels][RADIX+1],new int[levels][RADIX]);
+    }
+
+    /**
+     * American flag sort int版本 排序区间[lo,hi), 按第shift位开始的RADIX_BITS位分桶
+     * @param bounds 每层的桶边界, 第d个桶为 [lo+bounds[d], lo+bounds[d+1])
+     * @param next 每层每个桶中下一个待放置的位置
+     */
+    private static void americanFlagSort(int[] a,int lo,int hi,int shift,int[][] bounds,int[][] next){
+        if(hi - lo <= MSD_INSERTION_SORT_THRESHOLD){
+            InsertionSort.insertionSort(a,lo,hi-1);
+            return;
+        }
+
+        int level = shift / RADIX_BITS;
+        int[] bound = bounds[level];
+        int[] cur = next[level];
+
+        //统计每个桶的元素个数
+        Arrays.fill(bound,0);
+        for(int i=lo;i<hi;i++) bound[(((a[i] ^ Integer.MIN_VALUE) >>> shift) & RADIX_MASK)+1]++;
+        for(int d=0;d<RADIX;d++) bound[d+1] += bound[d];
+
+        //所有元素都在同一个桶，不需要置换
+        if(bound[(((a[lo] ^ Integer.MIN_VALUE) >>> shift) & RADIX_MASK)+1] - bound[(((a[lo] ^ Integer.MIN_VALUE) >>> shift) & RADIX_MASK)] < hi - lo){
+            for(int d=0;d<RADIX;d++) cur[d] = lo + bound[d];
+            for(int d=0;d<RADIX;d++){
+                int end = lo + bound[d+1];
+                while(cur[d] < end){
+                    int v = a[cur[d]];
+                    int dv = ((v ^ Integer.MIN_VALUE) >>> shift) & RADIX_MASK;
+                    //把v换到它所属的桶，直到换回属于桶d的元素
+                    while(dv != d){
+                        int t = a[cur[dv]];
+                        a[cur[dv]++] = v;
+                        v = t;
+                        dv = ((v ^ Integer.MIN_VALUE) >>> shift) & RADIX_MASK;
+                    }
+                    a[cur[d]++] = v;
+                }
+            }
+        }
+
+        //递归处理下一位
+        if(shift == 0) return;
+        for(int d=0;d<RADIX;d++){
+            if(bound[d+1] - bound[d] > 1) americanFlagSort(a,lo+bound[d],lo+bound[d+1],shift-RADIX_BITS,bounds,next);
+        }
+    }
+
+    /**
+     * MSD 基数排序(American flag sort) long版本 入口函数
+     * @param a 待排数组
+     */
+    public static void msdRadixSort(long[] a){
+        if(a == null) return;
+        msdRadixSort(a,0,a.length-1);
+    }
+
+    /**
+     * MSD 基数排序(American flag sort) long版本 排序区间[l,r]
+     * @param a 待排数组
+     * @param l 左边界
+     * @param r 右边界
+     */
+    public static void msdRadixSort(long[] a,int l,int r){
+        if(a == null || l >= r) return;
+        int levels = Long.SIZE / RADIX_BITS;
+        americanFlagSort(a,l,r+1,Long.SIZE - RADIX_BITS,new int[levels][RADIX+1],new int[levels][RADIX]);
+    }
+
+    /**
+     * American flag sort long版本 排序区间[lo,hi), 按第shift位开始的RADIX_BITS位分桶
+     * @param bounds 每层的桶边界, 第d个桶为 [lo+bounds[d], lo+bounds[d+1])
+     * @param next 每层每个桶中下一个待放置的位置
+     */
+    private static void americanFlagSort(long[] a,int lo,int hi,int shift,int[][] bounds,int[][] next){
+        if(hi - lo <= MSD_INSERTION_SORT_THRESHOLD){
+            InsertionSort.insertionSort(a,lo,hi-1);
+            return;
+        }
+
+        int level = shift / RADIX_BITS;
+        int[] bound = bounds[level];
+        int[] cur = next[level];
+
+        //统计每个桶的元素个数
+        Arrays.fill(bound,0);
+        for(int i=lo;i<hi;i++) bound[((int)((a[i] ^ Long.MIN_VALUE) >>> shift) & RADIX_MASK)+1]++;
+        for(int d=0;d<RADIX;d++) bound[d+1] += bound[d];
+
+        //所有元素都在同一个桶，不需要置换
+        if(bound[((int)((a[lo] ^ Long.MIN_VALUE) >>> shift) & RADIX_MASK)+1] - bound[((int)((a[lo] ^ Long.MIN_VALUE) >>> shift) & RADIX_MASK)] < hi - lo){
+            for(int d=0;d<RADIX;d++) cur[d] = lo + bound[d];
+            for(int d=0;d<RADIX;d++){
+                int end = lo + bound[d+1];
+                while(cur[d] < end){
+                    long v = a[cur[d]];
+                    int dv = (int)((v ^ Long.MIN_VALUE) >>> shift) & RADIX_MASK;
+                    //把v换到它所属的桶，直到换回属于桶d的元素
+                    while(dv != d){
+                        long t = a[cur[dv]];
+                        a[cur[dv]++] = v;
+                        v = t;
+                        dv = (int)((v ^ Long.MIN_VALUE) >>> shift) & RADIX_MASK;
+                    }
+                    a[cur[d]++] = v;
+                }
+            }
+        }
+
+        //递归处理下一位
+        if(shift == 0) return;
+        for(int d=0;d<RADIX;d++){
+            if(bound[d+1] - bound[d] > 1) americanFlagSort(a,lo+bound[d],lo+bound[d+1],shift-RADIX_BITS,bounds,next);
+        }
+    }
+
+    /**
+     * MSD 基数排序(American flag sort) String版本 入口函数
+     * @param a 待排数组
+     */
+    public static void msdRadixSort(String[] a){
+        if(a == null) return;
+        americanFlagSort(a,0,a.length,0,0,new int[MSD_STRING_MAX_DEPTH][],new int[MSD_STRING_MAX_DEPTH][]);
+    }
+
+    /**
+     * American flag sort String版本 排序区间[lo,hi), 按第d个字节分桶
+     * 0号桶为已经结束的字符串，第b个字节值放在b+1号桶
+     * @param depth 递归深度, 达到MSD_STRING_MAX_DEPTH时剩下的后缀使用MyTimSort
+     * @param bounds 每层的桶边界, 第一次递归到该层时分配
+     * @param next 每层每个桶中下一个待放置的位置
+     */
+    private static void americanFlagSort(String[] a,int lo,int hi,int d,int depth,int[][] bounds,int[][] next){
+        if(hi - lo <= MSD_INSERTION_SORT_THRESHOLD){
+            insertionSort(a,lo,hi,d>>1);
+            return;
+        }
+        if(depth == MSD_STRING_MAX_DEPTH){
+            int from = d >> 1;
+            MyTimSort.sort(a,lo,hi,(v,w) -> compareFrom(v,w,from));
+            return;
+        }
+
+        int buckets = RADIX + 1;
+        if(bounds[depth] == null){
+            bounds[depth] = new int[buckets+1];
+            next[depth] = new int[buckets];
+        }
+        //第b个桶为 [lo+bound[b], lo+bound[b+1])
+        int[] bound = bounds[depth];
+        int[] cur = next[depth];
+
+        //所有字符串的第d个字节都相同时直接看下一个字节, 不递归, 公共前缀再长也不会栈溢出
+        for(;;d++){
+            Arrays.fill(bound,0);
+            for(int i=lo;i<hi;i++) bound[byteAt(a[i],d)+2]++;
+            int first = byteAt(a[lo],d) + 1;
+            if(bound[first+1] < hi - lo) break;
+            //全部已经结束，全部相等
+            if(first == 0) return;
+        }
+        for(int b=0;b<buckets;b++) bound[b+1] += bound[b];
+
+        for(int b=0;b<buckets;b++) cur[b] = lo + bound[b];
+        for(int b=0;b<buckets;b++){
+            int end = lo + bound[b+1];
+            while(cur[b] < end){
+                String v = a[cur[b]];
+                int bv = byteAt(v,d) + 1;
+                while(bv != b){
+                    String t = a[cur[bv]];
+                    a[cur[bv]++] = v;
+                    v = t;
+                    bv = byteAt(v,d) + 1;
+                }
+                a[cur[b]++] = v;
+            }
+        }
+
+        //0号桶中的字符串已经结束，全部相等，不需要再排序
+        for(int b=1;b<buckets;b++){
+            if(bound[b+1] - bound[b] > 1) americanFlagSort(a,lo+bound[b],lo+bound[b+1],d+1,depth+1,bounds,next);
+        }
+    }
+
+    /**
+     * 返回字符串的第d个字节: 第d/2个char的高字节(d为偶数)或低字节(d为奇数), 字符串结束返回-1
+     */
+    private static int byteAt(String s,int d){
+        int i = d >> 1;
+        if(i >= s.length()) return -1;
+        char c = s.charAt(i);
+        return (d & 1) == 0 ? c >>> 8 : c & 0xFF;
+    }
+
+    /**
+     * 插入排序 排序区间[lo,hi), 区间内的字符串前from个字符都相同，从第from个字符开始比较
+     */
+    private static void insertionSort(String[] a,int lo,int hi,int from){
+        for(int i=lo+1;i<hi;i++){
+            String tmp = a[i];
+            int j = i;
+            for(; j>lo && compareFrom(tmp,a[j-1],from) < 0; j--) a[j] = a[j-1];
+            a[j] = tmp;
+        }
+    }
+
+    /**
+     * 从第from个字符开始比较, 与String.compareTo的顺序一致
+     */
+    private static int compareFrom(String v,String w,int from){
+        for(int i=from,n=Math.min(v.length(),w.length());i<n;i++){
+            char x = v.charAt(i), y = w.charAt(i);
+            if(x != y) return x - y;
+        }
+        return v.length() - w.length();
+    }
+
     /**
      * 返回一个数的第index位的值
      * @param num
@@ -94,6 +94,7 @@ public class ShellSort extends BaseSort implements SortedCompared{
                     j -= group;
                 }
                 a[j] = cur;
+                countMoves((i-j)/group+1);
             }
 
             //当 0<group<step时 ，为了避免 此时 group/step == 0 跳过group为1的分组
@@ -112,6 +113,160 @@ public class ShellSort extends BaseSort implements SortedCompared{
         shellSort(a,step);
     }
 
+//---------------------------------基本类型 int/long/float/double 实现---------------------------------
+
+    /*
+     * 基本类型版本直接使用 < 比较, 不需要装箱, 也没有compareTo的虚调用。
+     * float/double 按照Double.compare的约定排序: NaN排在最后, -0.0排在0.0之前。
+     */
+
+    /**
+     * 步长为 3 的希尔排序 int版本
+     */
+    public static void sort(int[] a){
+        shellSort(a,3);
+    }
+
+    /**
+     * 步长为 3 的希尔排序 long版本
+     */
+    public static void sort(long[] a){
+        shellSort(a,3);
+    }
+
+    /**
+     * 步长为 3 的希尔排序 float版本
+     */
+    public static void sort(float[] a){
+        shellSort(a,3);
+    }
+
+    /**
+     * 步长为 3 的希尔排序 double版本
+     */
+    public static void sort(double[] a){
+        shellSort(a,3);
+    }
+
+    /**
+     * 标准希尔排序 int版本
+     */
+    public static void shellSort(int[] a, int step){
+        if(a == null) return;
+        if(step < 2) throw new IllegalArgumentException("step must be >= 2: " + step);
+        shellSort(a,a.length,step);
+    }
+
+    /**
+     * 标准希尔排序 long版本
+     */
+    public static void shellSort(long[] a, int step){
+        if(a == null) return;
+        if(step < 2) throw new IllegalArgumentException("step must be >= 2: " + step);
+        shellSort(a,a.length,step);
+    }
+
+    /**
+     * 标准希尔排序 float版本
+     */
+    public static void shellSort(float[] a, int step){
+        if(a == null) return;
+        if(step < 2) throw new IllegalArgumentException("step must be >= 2: " + step);
+        int r = moveNaNToEnd(a,0,a.length-1);
+        shellSort(a,r+1,step);
+        sortNegativeZero(a,0,r);
+    }
+
+    /**
+     * 标准希尔排序 double版本
+     */
+    public static void shellSort(double[] a, int step){
+        if(a == null) return;
+        if(step < 2) throw new IllegalArgumentException("step must be >= 2: " + step);
+        int r = moveNaNToEnd(a,0,a.length-1);
+        shellSort(a,r+1,step);
+        sortNegativeZero(a,0,r);
+    }
+
+    /**
+     * 标准希尔排序 int版本 排序区间[0,length)
+     */
+    private static void shellSort(int[] a, int length, int step){
+        for(int group = length/step; ; group /= step){
+            //保证最后一趟的步长为1
+            if(group == 0) group = 1;
+            for(int i=group; i<length ;i++){
+                int j = i;
+                int cur = a[i];
+                while(j - group>=0 && cur < a[j - group]){
+                    a[j] = a[j-group];
+                    j -= group;
+                }
+                a[j] = cur;
+            }
+            if(group == 1) break;
+        }
+    }
+
+    /**
+     * 标准希尔排序 long版本 排序区间[0,length)
+     */
+    private static void shellSort(long[] a, int length, int step){
+        for(int group = length/step; ; group /= step){
+            //保证最后一趟的步长为1
+            if(group == 0) group = 1;
+            for(int i=group; i<length ;i++){
+                int j = i;
+                long cur = a[i];
+                while(j - group>=0 && cur < a[j - group]){
+                    a[j] = a[j-group];
+                    j -= group;
+                }
+                a[j] = cur;
+            }
+            if(group == 1) break;
+        }
+    }
+
+    /**
+     * 标准希尔排序 float版本 排序区间[0,length)
+     */
+    private static void shellSort(float[] a, int length, int step){
+        for(int group = length/step; ; group /= step){
+            //保证最后一趟的步长为1
+            if(group == 0) group = 1;
+            for(int i=group; i<length ;i++){
+                int j = i;
+                float cur = a[i];
+                while(j - group>=0 && cur < a[j - group]){
+                    a[j] = a[j-group];
+                    j -= group;
+                }
+                a[j] = cur;
+            }
+            if(group == 1) break;
+        }
+    }
+
+    /**
+     * 标准希尔排序 double版本 排序区间[0,length)
+     */
+    private static void shellSort(double[] a, int length, int step){
+        for(int group = length/step; ; group /= step){
+            //保证最后一趟的步长为1
+            if(group == 0) group = 1;
+            for(int i=group; i<length ;i++){
+                int j = i;
+                double cur = a[i];
+                while(j - group>=0 && cur < a[j - group]){
+                    a[j] = a[j-group];
+                    j -= group;
+                }
+                a[j] = cur;
+            }
+            if(group == 1) break;
+        }
+    }
 
 
     /**
@@ -0,0 +1,126 @@
+package sort;
+
+import java.util.Comparator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @className: SortCounter
+ * @description: 排序计数器，统计比较、交换、元素复制和辅助数组分配的次数
+ *
+ *              使用方式:
+ *                  java -Dsort.instrument=true ...
+ *                  SortReport report = SortCounter.measure(() -> QuickSort.threeWaySort(a));
+ *
+ *              ENABLED 是 static final 常量, 没有开启时各处的 if(SortCounter.ENABLED) 分支会被JIT直接消除,
+ *              排序没有任何额外开销。开启后计数点为 BaseSort.less / swap(K[]) 以及各排序中复制元素、
+ *              分配辅助数组的位置, 覆盖Comparable / Comparator版本的比较类排序;
+ *              基本类型版本和非比较类排序不计数。
+ *
+ *              计数器只绑定在调用measure()的线程上(ThreadLocal), 其他线程同时执行的排序不会被统计,
+ *              多个线程可以同时measure()。并行排序的子任务继承CountedTask, 创建时记下当前线程的计数器,
+ *              在工作线程中执行时计入同一个计数器, 所以并行排序中各线程的操作也会被统计;
+ *              包装后的比较器(counting)同样记下创建时的计数器。计数使用LongAdder。
+ *
+ * @author: agent
+ * @date: 2026/10/17
+ */
+public final class SortCounter {
+
+    //是否开启计数
+    static final boolean ENABLED = Boolean.getBoolean("sort.instrument");
+
+    //当前线程正在使用的计数器, 不在measure()中时为null
+    private static final ThreadLocal<SortCounter> ACTIVE = new ThreadLocal<>();
+
+    private final LongAdder comparisons = new LongAdder();
+    private final LongAdder swaps = new LongAdder();
+    private final LongAdder moves = new LongAdder();
+    private final LongAdder allocations = new LongAdder();
+    private final LongAdder allocatedElements = new LongAdder();
+
+    private SortCounter() {}
+
+    /**
+     * @return 是否开启了计数(-Dsort.instrument=true)
+     */
+    public static boolean isEnabled(){
+        return ENABLED;
+    }
+
+    /**
+     * 执行一次排序并返回计数结果
+     * @param sort 排序操作
+     * @return 计数结果
+     * @throws IllegalStateException 没有开启计数时
+     */
+    public static SortReport measure(Runnable sort){
+        if(!ENABLED) throw new IllegalStateException("sort instrumentation is off, run with -Dsort.instrument=true");
+        SortCounter counter = new SortCounter();
+        SortCounter prev = enter(counter);
+        try{
+            sort.run();
+        }finally{
+            exit(prev);
+        }
+        return new SortReport(counter.comparisons.sum(), counter.swaps.sum(), counter.moves.sum(),
+                counter.allocations.sum(), counter.allocatedElements.sum());
+    }
+
+    /**
+     * @return 当前线程的计数器, 不在measure()中时为null
+     */
+    static SortCounter current(){
+        return ACTIVE.get();
+    }
+
+    /**
+     * 把counter设置为当前线程的计数器
+     * @return 之前的计数器, 结束时传给exit()恢复
+     */
+    static SortCounter enter(SortCounter counter){
+        SortCounter prev = ACTIVE.get();
+        ACTIVE.set(counter);
+        return prev;
+    }
+
+    static void exit(SortCounter prev){
+        if(prev == null) ACTIVE.remove();
+        else ACTIVE.set(prev);
+    }
+
+    static void compare(){
+        SortCounter counter = ACTIVE.get();
+        if(counter != null) counter.comparisons.increment();
+    }
+
+    /**
+     * 包装比较器, 用于使用Comparator的排序(MyTimSort)
+     * 计数器在包装时确定, 比较器在并行排序的工作线程中调用时也计入同一个计数器
+     */
+    static <T> Comparator<T> counting(Comparator<T> c){
+        SortCounter counter = ACTIVE.get();
+        if(counter == null) return c;
+        return (x, y) -> {
+            counter.comparisons.increment();
+            return c.compare(x, y);
+        };
+    }
+
+    static void swap(){
+        SortCounter counter = ACTIVE.get();
+        if(counter != null) counter.swaps.increment();
+    }
+
+    static void move(int n){
+        SortCounter counter = ACTIVE.get();
+        if(counter != null) counter.moves.add(n);
+    }
+
+    static void allocate(int elements){
+        SortCounter counter = ACTIVE.get();
+        if(counter != null){
+            counter.allocations.increment();
+            counter.allocatedElements.add(elements);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package sort;
+
+/**
+ * @className: SortReport
+ * @description: 一次排序的计数结果，由 SortCounter.measure() 返回
+ *
+ *              comparisons  比较次数
+ *              swaps        交换次数
+ *              moves        交换之外的元素复制次数（插入时的移动、归并时写入辅助数组和写回等）
+ *              allocations / allocatedElements  辅助数组的分配次数和元素个数
+ *
+ *              读写次数按照代价模型估算:
+ *                  每次比较读2个元素, 每次交换读2写2, 每次复制读1写1
+ *
+ * @author: agent
+ * @date: 2026/10/17
+ */
+public final class SortReport {
+
+    private final long comparisons;
+    private final long swaps;
+    private final long moves;
+    private final long allocations;
+    private final long allocatedElements;
+
+    SortReport(long comparisons, long swaps, long moves, long allocations, long allocatedElements){
+        this.comparisons = comparisons;
+        this.swaps = swaps;
+        this.moves = moves;
+        this.allocations = allocations;
+        this.allocatedElements = allocatedElements;
+    }
+
+    public long getComparisons(){
+        return comparisons;
+    }
+
+    public long getSwaps(){
+        return swaps;
+    }
+
+    public long getMoves(){
+        return moves;
+    }
+
+    /**
+     * @return 估算的数组读次数
+     */
+    public long getReads(){
+        return 2 * comparisons + 2 * swaps + moves;
+    }
+
+    /**
+     * @return 估算的数组写次数
+     */
+    public long getWrites(){
+        return 2 * swaps + moves;
+    }
+
+    public long getAllocations(){
+        return allocations;
+    }
+
+    public long getAllocatedElements(){
+        return allocatedElements;
+    }
+
+    @Override
+    public String toString(){
+        return String.format("comparisons=%d, swaps=%d, moves=%d, reads=%d, writes=%d, allocations=%d (%d elements)",
+                comparisons, swaps, moves, getReads(), getWrites(), allocations, allocatedElements);
+    }
+}
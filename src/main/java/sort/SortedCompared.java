@@ -3,6 +3,7 @@ package sort;
 /**
  * @className: SortedCompared
  * @description: 排序即其优化后的性能比较
+ *              单次计时，没有预热，仅作粗略参考；可信的测试结果见 src/jmh/java 下的JMH基准测试
  * @author: ZSZ
  * @date: 2020/4/5 20:03
  */
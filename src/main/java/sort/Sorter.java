@@ -0,0 +1,274 @@
+package sort;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @className: Sorter
+ * @description: 自适应排序入口，根据输入的特征选择排序算法
+ *
+ *              特征:
+ *                  1. 长度: 小数组使用插入排序, 大数组且有多个线程时使用并行排序;
+ *                  2. 有序程度: BaseSort.presort()预扫描, 已有序直接返回, 严格递减时原地反转;
+ *                     再用BaseSort.countRuns()统计升序run的个数, run的平均长度足够长时使用TimSort;
+ *                  3. 取值范围 / 重复程度(int): 范围小或者抽样中不同的值很少时使用计数排序,
+ *                     否则使用LSD基数排序。
+ *
+ *              Comparable / Comparator 版本保持稳定: 只使用插入排序和TimSort。
+ *              每次排序返回选择的路径(Path), 同时按路径累计调用次数, 便于观察线上数据的分布。
+ *
+ * @author: agent
+ * @date: 2026/10/17
+ */
+public final class Sorter extends BaseSort {
+
+    /**
+     * 排序选择的路径
+     */
+    public enum Path {
+        ALREADY_SORTED,         //已有序或为null, 没有排序
+        REVERSED,               //严格递减, 原地反转
+        INSERTION_SORT,         //插入排序
+        TIM_SORT,               //TimSort
+        PARALLEL_TIM_SORT,      //并行TimSort
+        COUNT_SORT,             //自适应计数排序
+        RADIX_SORT,             //LSD基数排序
+        PARALLEL_RADIX_SORT,    //并行LSD基数排序
+        QUICK_SORT              //内省排序(三取样快排, 递归过深时改用堆排序)
+    }
+
+    //小于此长度使用插入排序
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+
+    //升序run的平均长度 >= 此值时认为基本有序, 使用TimSort
+    private static final int NEARLY_SORTED_RUN_LENGTH = 64;
+
+    //大于等于此长度且有多个线程时使用并行排序
+    private static final int PARALLEL_THRESHOLD = 1 << 20;
+
+    //抽样的元素个数
+    private static final int SAMPLE_SIZE = 1024;
+
+    //抽样中不同的值少于 1/DUPLICATE_DIVISOR 时认为重复很多
+    private static final int DUPLICATE_DIVISOR = 16;
+
+    //按路径累计的调用次数
+    private static final LongAdder[] PATH_COUNTS = new LongAdder[Path.values().length];
+
+    static {
+        for(int i=0;i<PATH_COUNTS.length;i++) PATH_COUNTS[i] = new LongAdder();
+    }
+
+    private Sorter() {}
+
+    /**
+     * @return 各路径累计的调用次数
+     */
+    public static Map<Path, Long> pathCounts(){
+        Map<Path, Long> counts = new EnumMap<>(Path.class);
+        for(Path path : Path.values()) counts.put(path, PATH_COUNTS[path.ordinal()].sum());
+        return counts;
+    }
+
+    /**
+     * 清空累计的调用次数
+     */
+    public static void resetPathCounts(){
+        for(LongAdder count : PATH_COUNTS) count.reset();
+    }
+
+    private static Path record(Path path){
+        PATH_COUNTS[path.ordinal()].increment();
+        return path;
+    }
+
+    private static Path presortPath(int presort){
+        return presort == PRESORT_ASCENDING ? Path.ALREADY_SORTED : Path.REVERSED;
+    }
+
+    private static boolean parallel(int n){
+        return n >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1;
+    }
+
+//-------------------------------------int----------------------------------------------
+
+    /**
+     * 排序int数组
+     * @param a 待排数组
+     * @return 选择的路径, a为null时为ALREADY_SORTED
+     */
+    public static Path sort(int[] a){
+        if(a == null) return record(Path.ALREADY_SORTED);
+        int n = a.length;
+        if(n < INSERTION_SORT_THRESHOLD){
+            InsertionSort.insertionSort(a);
+            return record(Path.INSERTION_SORT);
+        }
+
+        int presort = presort(a, 0, n-1);
+        if(presort != PRESORT_NONE) return record(presortPath(presort));
+        if(countRuns(a, 0, n-1, n / NEARLY_SORTED_RUN_LENGTH) <= n / NEARLY_SORTED_RUN_LENGTH){
+            MyTimSort.sort(a);
+            return record(Path.TIM_SORT);
+        }
+
+        int min = a[0], max = a[0];
+        for(int i=1;i<n;i++){
+            if(a[i] < min) min = a[i];
+            else if(a[i] > max) max = a[i];
+        }
+        //取值范围不超过n时计数数组不比原数组大
+        if((long) max - min < n || fewDistinct(a)){
+            CountSort.adaptiveCountSort(a);
+            return record(Path.COUNT_SORT);
+        }
+        if(parallel(n)){
+            RadixSort.parallelLsdRadixSort(a);
+            return record(Path.PARALLEL_RADIX_SORT);
+        }
+        RadixSort.lsdRadixSort(a);
+        return record(Path.RADIX_SORT);
+    }
+
+    /**
+     * 等距抽样, 估计不同值的比例
+     */
+    private static boolean fewDistinct(int[] a){
+        int n = a.length, m = Math.min(n, SAMPLE_SIZE);
+        int[] sample = new int[m];
+        for(int i=0;i<m;i++) sample[i] = a[(int) ((long) i * n / m)];
+        QuickSort.advanceQuickSort1(sample);
+        int distinct = 1;
+        for(int i=1;i<m;i++) if(sample[i] != sample[i-1]) distinct++;
+        return distinct < m / DUPLICATE_DIVISOR;
+    }
+
+//-------------------------------------long----------------------------------------------
+
+    /**
+     * 排序long数组
+     * @param a 待排数组
+     * @return 选择的路径
+     */
+    public static Path sort(long[] a){
+        if(a == null) return record(Path.ALREADY_SORTED);
+        int n = a.length;
+        if(n < INSERTION_SORT_THRESHOLD){
+            InsertionSort.insertionSort(a);
+            return record(Path.INSERTION_SORT);
+        }
+
+        int presort = presort(a, 0, n-1);
+        if(presort != PRESORT_NONE) return record(presortPath(presort));
+        if(countRuns(a, 0, n-1, n / NEARLY_SORTED_RUN_LENGTH) <= n / NEARLY_SORTED_RUN_LENGTH){
+            MyTimSort.sort(a);
+            return record(Path.TIM_SORT);
+        }
+        //LSD基数排序会跳过所有元素都相同的字节, 取值范围小时同样很快
+        if(parallel(n)){
+            RadixSort.parallelLsdRadixSort(a);
+            return record(Path.PARALLEL_RADIX_SORT);
+        }
+        RadixSort.lsdRadixSort(a);
+        return record(Path.RADIX_SORT);
+    }
+
+//-------------------------------------float/double----------------------------------------------
+
+    /**
+     * 排序float数组, 按照Float.compare的约定: NaN排在最后, -0.0排在0.0之前
+     * @param a 待排数组
+     * @return 选择的路径
+     */
+    public static Path sort(float[] a){
+        if(a == null) return record(Path.ALREADY_SORTED);
+        int n = a.length;
+        if(n < INSERTION_SORT_THRESHOLD){
+            InsertionSort.insertionSort(a);
+            return record(Path.INSERTION_SORT);
+        }
+
+        int r = moveNaNToEnd(a, 0, n-1);
+        int presort = presort(a, 0, r);
+        if(presort != PRESORT_NONE){
+            sortNegativeZero(a, 0, r);
+            return record(presortPath(presort));
+        }
+        if(countRuns(a, 0, r, n / NEARLY_SORTED_RUN_LENGTH) <= n / NEARLY_SORTED_RUN_LENGTH){
+            MyTimSort.sort(a);
+            return record(Path.TIM_SORT);
+        }
+        QuickSort.introSort(a);
+        return record(Path.QUICK_SORT);
+    }
+
+    /**
+     * 排序double数组, 按照Double.compare的约定: NaN排在最后, -0.0排在0.0之前
+     * @param a 待排数组
+     * @return 选择的路径
+     */
+    public static Path sort(double[] a){
+        if(a == null) return record(Path.ALREADY_SORTED);
+        int n = a.length;
+        if(n < INSERTION_SORT_THRESHOLD){
+            InsertionSort.insertionSort(a);
+            return record(Path.INSERTION_SORT);
+        }
+
+        int r = moveNaNToEnd(a, 0, n-1);
+        int presort = presort(a, 0, r);
+        if(presort != PRESORT_NONE){
+            sortNegativeZero(a, 0, r);
+            return record(presortPath(presort));
+        }
+        if(countRuns(a, 0, r, n / NEARLY_SORTED_RUN_LENGTH) <= n / NEARLY_SORTED_RUN_LENGTH){
+            MyTimSort.sort(a);
+            return record(Path.TIM_SORT);
+        }
+        QuickSort.introSort(a);
+        return record(Path.QUICK_SORT);
+    }
+
+//-------------------------------------Comparable / Comparator----------------------------------------------
+
+    /**
+     * 排序对象数组, 稳定
+     * @param a 待排数组
+     * @param <K> 类型
+     * @return 选择的路径
+     */
+    public static <K extends Comparable<K>> Path sort(K[] a){
+        return sort(a, Comparator.naturalOrder());
+    }
+
+    /**
+     * 使用比较器排序对象数组, 稳定
+     * @param a 待排数组
+     * @param c 比较器
+     * @param <T> 类型
+     * @return 选择的路径
+     */
+    public static <T> Path sort(T[] a, Comparator<? super T> c){
+        if(a == null) return record(Path.ALREADY_SORTED);
+        int n = a.length;
+        if(n < INSERTION_SORT_THRESHOLD){
+            //MyTimSort对小数组直接使用折半插入
+            MyTimSort.sort(a,0,n,c);
+            return record(Path.INSERTION_SORT);
+        }
+
+        //严格递减时才反转, 没有相等元素, 不影响稳定性
+        int presort = presort(a, 0, n-1, c);
+        if(presort != PRESORT_NONE) return record(presortPath(presort));
+        if(countRuns(a, 0, n-1, n / NEARLY_SORTED_RUN_LENGTH, c) > n / NEARLY_SORTED_RUN_LENGTH && parallel(n)){
+            MyTimSort.parallelSort(a,0,n,c);
+            return record(Path.PARALLEL_TIM_SORT);
+        }
+        MyTimSort.sort(a,0,n,c);
+        return record(Path.TIM_SORT);
+    }
+
+}